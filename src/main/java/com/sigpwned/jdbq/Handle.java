@@ -22,6 +22,10 @@ package com.sigpwned.jdbq;
 import static java.util.Objects.requireNonNull;
 import com.google.cloud.bigquery.BigQuery;
 import com.sigpwned.jdbq.config.ConfigRegistry;
+import com.sigpwned.jdbq.statement.Batch;
+import com.sigpwned.jdbq.statement.PreparedBatch;
+import com.sigpwned.jdbq.statement.PreparedQuery;
+import com.sigpwned.jdbq.statement.PreparedUpdate;
 import com.sigpwned.jdbq.statement.Query;
 import com.sigpwned.jdbq.statement.Update;
 
@@ -60,6 +64,48 @@ public class Handle implements AutoCloseable {
     return new Update(this, sql);
   }
 
+  /**
+   * Prepares the given query for repeated execution. Equivalent to
+   * {@code createQuery(sql).prepare()}.
+   *
+   * @param sql the query SQL
+   * @return the prepared query
+   */
+  public PreparedQuery prepareQuery(String sql) {
+    return createQuery(sql).prepare();
+  }
+
+  /**
+   * Prepares the given update for repeated execution. Equivalent to
+   * {@code createUpdate(sql).prepare()}.
+   *
+   * @param sql the update SQL
+   * @return the prepared update
+   */
+  public PreparedUpdate prepareUpdate(String sql) {
+    return createUpdate(sql).prepare();
+  }
+
+  /**
+   * Creates a batch that executes several updates as one script job.
+   *
+   * @return the batch
+   */
+  public Batch createBatch() {
+    return new Batch(this);
+  }
+
+  /**
+   * Creates a batch that executes the given single-row DML statement for many rows of arguments in
+   * one job.
+   *
+   * @param sql the INSERT, UPDATE, or DELETE SQL for one row
+   * @return the batch
+   */
+  public PreparedBatch prepareBatch(String sql) {
+    return new PreparedBatch(this, sql);
+  }
+
   @Override
   public void close() {
     // NOP
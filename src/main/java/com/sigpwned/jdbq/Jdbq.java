@@ -26,10 +26,12 @@ import com.google.auth.Credentials;
 import com.google.cloud.bigquery.BigQuery;
 import com.google.cloud.bigquery.BigQueryOptions;
 import com.sigpwned.jdbq.config.ConfigRegistry;
+import com.sigpwned.jdbq.job.JobPoller;
 
 public class Jdbq {
   private final BigQuery client;
   private final ConfigRegistry config;
+  private volatile JobPoller jobPoller;
 
   public Jdbq(GoogleCredentialsProvider credentialsProvider) throws IOException {
     this(credentialsProvider.getCredentials());
@@ -46,6 +48,7 @@ public class Jdbq {
   public Jdbq(BigQuery client) {
     this.client = requireNonNull(client);
     this.config = new ConfigRegistry();
+    this.jobPoller = new JobPoller();
   }
 
   public Handle open() {
@@ -65,4 +68,25 @@ public class Jdbq {
   public ConfigRegistry getConfig() {
     return config;
   }
+
+  /**
+   * @return the poller that waits for the jobs of all statements executed through this instance
+   */
+  public JobPoller getJobPoller() {
+    return jobPoller;
+  }
+
+  /**
+   * Replaces the poller that waits for job completion, e.g., to tune its thread count or request
+   * rate. Jobs already being watched by the previous poller are unaffected. The previous poller is
+   * not shut down, since it may be shared with other instances. If it was built on a scheduler of
+   * the caller's, then shutting that scheduler down remains the caller's responsibility.
+   *
+   * @param jobPoller the new job poller
+   * @return this
+   */
+  public Jdbq setJobPoller(JobPoller jobPoller) {
+    this.jobPoller = requireNonNull(jobPoller);
+    return this;
+  }
 }
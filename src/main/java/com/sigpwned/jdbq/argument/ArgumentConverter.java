@@ -0,0 +1,101 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.argument;
+
+import static java.util.Objects.requireNonNull;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.List;
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+import com.sigpwned.jdbq.generic.GenericTypes;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+
+/**
+ * Converts argument values of one type to query parameter values, by trying each
+ * {@link ArgumentFactory} in priority order. Converters are thread-safe.
+ *
+ * <p>
+ * If the type is final, e.g., {@code String} or {@code Long[]}, then every value has the same
+ * class, and factories choose by class, so the first factory to accept a value accepts them all. In
+ * that case the converter remembers the factory that mapped the last value, and tries it first next
+ * time. For other types, e.g., {@code Object} or {@code List<Long>}, a higher-priority factory may
+ * accept some values that a lower-priority one handled before, so every factory is tried in order
+ * every time.
+ *
+ * @see Arguments#findConverter(Type)
+ */
+public final class ArgumentConverter {
+  private final Type type;
+  private final ArgumentFactory[] argumentFactories;
+  private final boolean memoizing;
+  private volatile ArgumentFactory argumentFactory;
+
+  /**
+   * @param type the argument type
+   * @param argumentFactories the factories to try, in priority order. The converter keeps its own
+   *        snapshot, so later changes to the given list do not affect it.
+   */
+  ArgumentConverter(Type type, List<ArgumentFactory> argumentFactories) {
+    this.type = requireNonNull(type);
+    this.argumentFactories = argumentFactories.toArray(new ArgumentFactory[0]);
+    this.memoizing = Modifier.isFinal(GenericTypes.getErasedType(type).getModifiers());
+  }
+
+  /**
+   * @return the type of argument this converter converts
+   */
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * Converts the given argument value.
+   *
+   * @param value the argument value
+   * @param config the config of the statement being bound
+   * @return the query parameter value, or null if the argument value is null
+   * @throws UnableToCreateStatementException if no factory can map the argument value
+   */
+  public QueryParameterValue convert(Object value, ConfigRegistry config) {
+    if (value == null)
+      return null;
+
+    ArgumentFactory last = memoizing ? argumentFactory : null;
+    if (last != null) {
+      QueryParameterValue result = last.map(type, value, config).orElse(null);
+      if (result != null)
+        return result;
+    }
+
+    for (ArgumentFactory candidate : argumentFactories) {
+      if (candidate == last)
+        continue;
+      QueryParameterValue result = candidate.map(type, value, config).orElse(null);
+      if (result != null) {
+        if (memoizing)
+          argumentFactory = candidate;
+        return result;
+      }
+    }
+
+    throw new UnableToCreateStatementException("Failed to map argument value " + value);
+  }
+}
@@ -19,9 +19,12 @@
  */
 package com.sigpwned.jdbq.argument;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 import com.google.cloud.bigquery.QueryParameterValue;
 import com.sigpwned.jdbq.argument.factory.BoxedArgumentFactory;
 import com.sigpwned.jdbq.argument.factory.CharSequenceArgumentFactory;
@@ -32,18 +35,46 @@ import com.sigpwned.jdbq.argument.factory.InternetArgumentFactory;
 import com.sigpwned.jdbq.argument.factory.JavaTimeArgumentFactory;
 import com.sigpwned.jdbq.argument.factory.JavaTimeZoneIdArgumentFactory;
 import com.sigpwned.jdbq.argument.factory.OptionalArgumentFactory;
+import com.sigpwned.jdbq.argument.factory.PrimitiveArrayArgumentFactory;
 import com.sigpwned.jdbq.argument.factory.PrimitivesArgumentFactory;
+import com.sigpwned.jdbq.argument.factory.StructArgumentFactory;
 import com.sigpwned.jdbq.config.ConfigRegistry;
 import com.sigpwned.jdbq.config.JdbqConfig;
+import com.sigpwned.jdbq.internal.BoundedCache;
 import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
 
 public class Arguments implements JdbqConfig<Arguments> {
-  private final List<ArgumentFactory> argumentFactories;
+  /**
+   * Factories that are tried only after every registered factory, built-in or not, has declined.
+   * {@link StructArgumentFactory} accepts any {@link java.util.Map} and record type, so it goes
+   * here to leave registered factories the first chance at those types.
+   */
+  private static final List<ArgumentFactory> FALLBACK_ARGUMENT_FACTORIES =
+      singletonList(new StructArgumentFactory());
+
+  /**
+   * The registered factories. The list is immutable, so copies of this config share it until
+   * either one registers a factory, at which point it gets a list of its own.
+   */
+  private volatile List<ArgumentFactory> argumentFactories;
+
+  /**
+   * The most converters to cache
+   */
+  private static final int MAXIMUM_CONVERTERS = 1000;
+
+  /**
+   * The converter for each argument type seen recently. Converters snapshot the factory list, so
+   * copies of this config share the cache until either one registers a factory, at which point it
+   * starts over with a cache of its own.
+   */
+  private volatile BoundedCache<Type, ArgumentConverter> converters;
 
   public Arguments() {
-    this.argumentFactories = new CopyOnWriteArrayList<>();
+    this.argumentFactories = emptyList();
+    this.converters = new BoundedCache<>(MAXIMUM_CONVERTERS);
 
-    // register built-in factories, priority of factories is by reverse registration order
+    // register built-in factories, priority of factories is by registration order
     addArgumentFactory(new PrimitivesArgumentFactory());
     addArgumentFactory(new BoxedArgumentFactory());
     addArgumentFactory(new InternetArgumentFactory());
@@ -52,33 +83,45 @@ public class Arguments implements JdbqConfig<Arguments> {
     addArgumentFactory(new EssentialsArgumentFactory());
     addArgumentFactory(new JavaTimeZoneIdArgumentFactory());
     addArgumentFactory(new EnumArgumentFactory());
+    addArgumentFactory(new PrimitiveArrayArgumentFactory()); // before CollectionArgumentFactory
     addArgumentFactory(new CollectionArgumentFactory());
     addArgumentFactory(new OptionalArgumentFactory());
   }
 
   private Arguments(Arguments that) {
-    this.argumentFactories = new CopyOnWriteArrayList<>(that.argumentFactories);
+    this.argumentFactories = that.argumentFactories;
+    this.converters = that.converters;
   }
 
-  public void addArgumentFactory(ArgumentFactory argumentFactory) {
-    getArgumentFactories().add(argumentFactory);
+  public synchronized void addArgumentFactory(ArgumentFactory argumentFactory) {
+    List<ArgumentFactory> argumentFactories = new ArrayList<>(getArgumentFactories());
+    argumentFactories.add(argumentFactory);
+    this.argumentFactories = unmodifiableList(argumentFactories);
+    this.converters = new BoundedCache<>(MAXIMUM_CONVERTERS);
   }
 
   public QueryParameterValue map(Type type, Object value, ConfigRegistry config) {
-    QueryParameterValue result;
-    if (value == null) {
-      result = null;
-    } else {
-      result = null;
-      for (ArgumentFactory argumentFactory : getArgumentFactories()) {
-        result = argumentFactory.map(type, value, config).orElse(null);
-        if (result != null)
-          break;
-      }
-      if (result == null)
-        throw new UnableToCreateStatementException("Failed to map argument value " + value);
-    }
-    return result;
+    return findConverter(type).convert(value, config);
+  }
+
+  /**
+   * Returns the converter for arguments of the given type. Converters are cached by type, up to a
+   * bounded number of types, so mapping later values of a recent type costs one lookup plus the
+   * factory calls. The cache is discarded when a factory is added.
+   *
+   * @param type the argument type
+   * @return a converter for arguments of the given type
+   */
+  public ArgumentConverter findConverter(Type type) {
+    // Read the cache before the factories. addArgumentFactory replaces them in the other order, so
+    // a converter built here never lands in a cache newer than its factories.
+    final BoundedCache<Type, ArgumentConverter> converters = this.converters;
+    final List<ArgumentFactory> argumentFactories = getArgumentFactories();
+    return converters.computeIfAbsent(type, t -> {
+      List<ArgumentFactory> candidates = new ArrayList<>(argumentFactories);
+      candidates.addAll(FALLBACK_ARGUMENT_FACTORIES);
+      return new ArgumentConverter(t, candidates);
+    });
   }
 
   /**
@@ -0,0 +1,287 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.argument;
+
+import static java.util.Collections.unmodifiableList;
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+
+/**
+ * The named values of objects of one class, e.g., the properties of a bean, compiled once per class
+ * into {@link MethodHandle} accessors. Accessors are cached per class, so binding an object only
+ * costs a name lookup and a method handle call per value actually used, with no reflection.
+ */
+public final class ObjectAccessors {
+  private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private static final ClassValue<ObjectAccessors> BEAN_PROPERTIES =
+      new ClassValue<ObjectAccessors>() {
+        @Override
+        protected ObjectAccessors computeValue(Class<?> type) {
+          return isRecord(type) ? compileRecordComponents(type) : compileBeanProperties(type);
+        }
+      };
+
+  private static final ClassValue<ObjectAccessors> FIELDS = new ClassValue<ObjectAccessors>() {
+    @Override
+    protected ObjectAccessors computeValue(Class<?> type) {
+      return compileFields(type);
+    }
+  };
+
+  private static final ClassValue<ObjectAccessors> METHODS = new ClassValue<ObjectAccessors>() {
+    @Override
+    protected ObjectAccessors computeValue(Class<?> type) {
+      return compileMethods(type);
+    }
+  };
+
+  /**
+   * Returns the readable properties of the given class, per {@link Introspector}, excluding
+   * {@code class}. For record classes, returns the record components instead.
+   *
+   * @param type the class
+   * @return the accessors
+   */
+  public static ObjectAccessors beanProperties(Class<?> type) {
+    return BEAN_PROPERTIES.get(type);
+  }
+
+  /**
+   * Returns the public instance fields of the given class, including inherited fields.
+   *
+   * @param type the class
+   * @return the accessors
+   */
+  public static ObjectAccessors fields(Class<?> type) {
+    return FIELDS.get(type);
+  }
+
+  /**
+   * Returns the public instance methods of the given class that take no arguments and return a
+   * value, named by method name, excluding methods declared by {@link Object}.
+   *
+   * @param type the class
+   * @return the accessors
+   */
+  public static ObjectAccessors methods(Class<?> type) {
+    return METHODS.get(type);
+  }
+
+  private static ObjectAccessors compileBeanProperties(Class<?> type) {
+    final BeanInfo beanInfo;
+    try {
+      beanInfo = Introspector.getBeanInfo(type);
+    } catch (IntrospectionException e) {
+      throw new UnableToCreateStatementException("Failed to introspect bean " + type.getName(), e);
+    }
+
+    ObjectAccessors.Builder result = new ObjectAccessors.Builder(type);
+    for (PropertyDescriptor property : beanInfo.getPropertyDescriptors()) {
+      Method getter = property.getReadMethod();
+      if (getter == null || property.getName().equals("class"))
+        continue;
+      result.add(property.getName(), getter.getGenericReturnType(), unreflect(getter));
+    }
+
+    return result.build();
+  }
+
+  private static ObjectAccessors compileFields(Class<?> type) {
+    ObjectAccessors.Builder result = new ObjectAccessors.Builder(type);
+    for (Field field : type.getFields()) {
+      if (Modifier.isStatic(field.getModifiers()))
+        continue;
+      result.add(field.getName(), field.getGenericType(), unreflectGetter(field));
+    }
+    return result.build();
+  }
+
+  private static ObjectAccessors compileMethods(Class<?> type) {
+    ObjectAccessors.Builder result = new ObjectAccessors.Builder(type);
+    for (Method method : type.getMethods()) {
+      if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+          || method.getReturnType() == void.class || method.getDeclaringClass() == Object.class)
+        continue;
+      result.add(method.getName(), method.getGenericReturnType(), unreflect(method));
+    }
+    return result.build();
+  }
+
+  /**
+   * We target Java 8, so we find record components reflectively.
+   */
+  private static ObjectAccessors compileRecordComponents(Class<?> type) {
+    ObjectAccessors.Builder result = new ObjectAccessors.Builder(type);
+    try {
+      Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+      for (Object component : components) {
+        Class<?> componentClass = component.getClass();
+        String name = (String) componentClass.getMethod("getName").invoke(component);
+        Method accessor = (Method) componentClass.getMethod("getAccessor").invoke(component);
+        result.add(name, accessor.getGenericReturnType(), unreflect(accessor));
+      }
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+      throw new UnableToCreateStatementException("Failed to inspect record " + type.getName(), e);
+    }
+    return result.build();
+  }
+
+  /**
+   * @param type the class
+   * @return true if the given class is a record class, false otherwise
+   */
+  public static boolean isRecord(Class<?> type) {
+    Class<?> superclass = type.getSuperclass();
+    return superclass != null && superclass.getName().equals("java.lang.Record");
+  }
+
+  private static MethodHandle unreflect(Method method) {
+    trySetAccessible(method);
+    try {
+      return MethodHandles.lookup().unreflect(method).asType(ACCESSOR_TYPE);
+    } catch (IllegalAccessException e) {
+      throw new UnableToCreateStatementException("Cannot access method " + method, e);
+    }
+  }
+
+  private static MethodHandle unreflectGetter(Field field) {
+    trySetAccessible(field);
+    try {
+      return MethodHandles.lookup().unreflectGetter(field).asType(ACCESSOR_TYPE);
+    } catch (IllegalAccessException e) {
+      throw new UnableToCreateStatementException("Cannot access field " + field, e);
+    }
+  }
+
+  /**
+   * Public members of non-public classes, e.g., private nested classes, are not accessible without
+   * this. If the runtime refuses, then we carry on and let the lookup report the problem.
+   */
+  private static void trySetAccessible(AccessibleObject member) {
+    try {
+      member.setAccessible(true);
+    } catch (RuntimeException e) {
+      // Ignore. This is a SecurityException or, on newer runtimes, InaccessibleObjectException.
+    }
+  }
+
+  private static final class Builder {
+    private final Class<?> type;
+    private final List<String> names = new ArrayList<>();
+    private final List<Type> types = new ArrayList<>();
+    private final List<MethodHandle> accessors = new ArrayList<>();
+
+    public Builder(Class<?> type) {
+      this.type = type;
+    }
+
+    public void add(String name, Type type, MethodHandle accessor) {
+      names.add(name);
+      types.add(type);
+      accessors.add(accessor);
+    }
+
+    public ObjectAccessors build() {
+      return new ObjectAccessors(type, names.toArray(new String[0]), types.toArray(new Type[0]),
+          accessors.toArray(new MethodHandle[0]));
+    }
+  }
+
+  private final Class<?> type;
+  private final String[] names;
+  private final Type[] types;
+  private final MethodHandle[] accessors;
+  private final Map<String, Integer> indexes;
+
+  private ObjectAccessors(Class<?> type, String[] names, Type[] types, MethodHandle[] accessors) {
+    this.type = type;
+    this.names = names;
+    this.types = types;
+    this.accessors = accessors;
+    this.indexes = new HashMap<>();
+    for (int i = 0; i < names.length; i++)
+      indexes.putIfAbsent(names[i], i);
+  }
+
+  /**
+   * @return the class these accessors read
+   */
+  public Class<?> getObjectType() {
+    return type;
+  }
+
+  /**
+   * @return the names of the values, in no particular order
+   */
+  public List<String> getNames() {
+    return unmodifiableList(Arrays.asList(names));
+  }
+
+  /**
+   * @param name the value name
+   * @return the index of the value with the given name, or -1 if there is no such value
+   */
+  public int indexOf(String name) {
+    Integer result = indexes.get(name);
+    return result != null ? result.intValue() : -1;
+  }
+
+  /**
+   * @param index the value index
+   * @return the declared type of the value at the given index
+   */
+  public Type getType(int index) {
+    return types[index];
+  }
+
+  /**
+   * @param index the value index
+   * @param target the object to read
+   * @return the value at the given index of the given object
+   */
+  public Object getValue(int index, Object target) {
+    try {
+      return (Object) accessors[index].invokeExact(target);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UnableToCreateStatementException(
+          "Failed to read " + names[index] + " from " + type.getName(), e);
+    }
+  }
+}
@@ -21,11 +21,14 @@ package com.sigpwned.jdbq.argument.factory;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import com.google.cloud.bigquery.QueryParameterValue;
 import com.google.cloud.bigquery.StandardSQLTypeName;
+import com.sigpwned.jdbq.argument.ArgumentConverter;
 import com.sigpwned.jdbq.argument.ArgumentFactory;
 import com.sigpwned.jdbq.argument.Arguments;
 import com.sigpwned.jdbq.config.ConfigRegistry;
@@ -45,30 +48,58 @@ public class CollectionArgumentFactory implements ArgumentFactory {
           .orElseThrow(() -> new UnableToCreateStatementException(
               "Collection has unresolvable element type " + type));
 
-      // TODO Does the collection case need to match the array case for all inputs?
-      // TODO If the array is empty, do we need to map this to a SQLStandardTypeName?
-      @SuppressWarnings("unused")
       Class elementClass = GenericTypes.getErasedType(elementType);
 
-      Iterator<?> iterator = collection.iterator();
-      List<QueryParameterValue> array = new ArrayList<>();
-      while (iterator.hasNext())
-        array.add(config.get(Arguments.class).map(elementType, iterator.next(), config));
+      // Common element types convert in one pass, without per-element factory calls
+      result = ArrayParameterValues.ofIterable(collection, elementClass);
+      if (result != null)
+        return Optional.of(result);
 
-      // TODO Does this handle array of struct properly?
-      result = QueryParameterValue.newBuilder().setType(StandardSQLTypeName.ARRAY)
-          .setArrayType(array.isEmpty() ? null : array.get(0).getType()).setArrayValues(array)
-          .build();
+      result = convertElements(collection, elementType, config);
     } else {
       Class arrayClass = GenericTypes.getErasedType(type);
-      if (arrayClass.getComponentType() == null)
-        throw new IllegalArgumentException("invalid array type: " + arrayClass.getName());
+      if (arrayClass.getComponentType() == null || arrayClass.getComponentType().isPrimitive()) {
+        // Not an array of objects, so leave it to the other factories.
+        return Optional.empty();
+      }
       Class elementClass = arrayClass.getComponentType();
 
       Object[] array = (Object[]) value;
 
-      result = QueryParameterValue.array(array, elementClass);
+      result = ArrayParameterValues.ofIterable(Arrays.asList(array), elementClass);
+      if (result == null)
+        result = convertElements(Arrays.asList(array), elementClass, config);
     }
     return Optional.ofNullable(result);
   }
+
+  /**
+   * Converts each element with the converter for the element type, which is resolved once for the
+   * whole collection, not once per element.
+   */
+  private static QueryParameterValue convertElements(Iterable<?> collection, Type elementType,
+      ConfigRegistry config) {
+    ArgumentConverter elementConverter = config.get(Arguments.class).findConverter(elementType);
+    Iterator<?> iterator = collection.iterator();
+    List<QueryParameterValue> array = collection instanceof Collection
+        ? new ArrayList<>(((Collection<?>) collection).size())
+        : new ArrayList<>();
+    while (iterator.hasNext()) {
+      Object element = iterator.next();
+      if (element == null)
+        throw ArrayParameterValues.nullElement(array.size());
+      array.add(elementConverter.convert(element, config));
+    }
+
+    // The element type comes from the converted elements, so struct elements, e.g., from
+    // StructArgumentFactory, give an ARRAY<STRUCT> here. Empty collections of element types that
+    // ArrayParameterValues knows never get here, and for any other element type there is no value
+    // to take a type from, and BigQuery rejects an ARRAY without one.
+    if (array.isEmpty())
+      throw new UnableToCreateStatementException(
+          "Cannot determine ARRAY element type of empty collection of " + elementType);
+
+    return QueryParameterValue.newBuilder().setType(StandardSQLTypeName.ARRAY)
+        .setArrayType(array.get(0).getType()).setArrayValues(array).build();
+  }
 }
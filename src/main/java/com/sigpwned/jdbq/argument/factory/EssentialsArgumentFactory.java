@@ -56,6 +56,9 @@ public class EssentialsArgumentFactory implements ArgumentFactory {
     } else if (type.equals(UUID.class)) {
       UUID uuid = (UUID) value;
       result = QueryParameterValue.string(uuid.toString());
+    } else if (type.equals(QueryParameterValue.class)) {
+      // Values that are already query parameters bind as themselves
+      result = (QueryParameterValue) value;
     } else {
       result = null;
     }
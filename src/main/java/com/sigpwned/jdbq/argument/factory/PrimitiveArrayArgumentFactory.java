@@ -0,0 +1,52 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.argument.factory;
+
+import java.lang.reflect.Type;
+import java.util.Optional;
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.sigpwned.jdbq.argument.ArgumentFactory;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+
+/**
+ * Binds {@code long[]}, {@code int[]}, {@code double[]}, and {@code boolean[]} arguments as ARRAY
+ * parameters, without boxing their elements. Note that {@code byte[]} binds as BYTES, per
+ * {@link EssentialsArgumentFactory}.
+ */
+public class PrimitiveArrayArgumentFactory implements ArgumentFactory {
+  @Override
+  public Optional<QueryParameterValue> map(Type type, Object value, ConfigRegistry config) {
+    QueryParameterValue result;
+    if (value == null) {
+      result = null;
+    } else if (type.equals(long[].class)) {
+      result = ArrayParameterValues.ofLongs((long[]) value);
+    } else if (type.equals(int[].class)) {
+      result = ArrayParameterValues.ofInts((int[]) value);
+    } else if (type.equals(double[].class)) {
+      result = ArrayParameterValues.ofDoubles((double[]) value);
+    } else if (type.equals(boolean[].class)) {
+      result = ArrayParameterValues.ofBooleans((boolean[]) value);
+    } else {
+      result = null;
+    }
+    return Optional.ofNullable(result);
+  }
+}
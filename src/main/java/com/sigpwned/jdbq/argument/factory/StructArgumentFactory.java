@@ -0,0 +1,172 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.argument.factory;
+
+import static java.util.Collections.unmodifiableSet;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import com.sigpwned.jdbq.argument.ArgumentFactory;
+import com.sigpwned.jdbq.argument.Arguments;
+import com.sigpwned.jdbq.argument.ObjectAccessors;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+import com.sigpwned.jdbq.generic.GenericTypes;
+import com.sigpwned.jdbq.internal.Maps;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+
+/**
+ * Maps objects to STRUCT query parameters, one field per map entry, record component, or bean
+ * property. Maps with {@link String} keys and records are always mapped. Fields are in record
+ * component order, bean property name order, or map iteration order if the map has a defined one,
+ * e.g., {@link LinkedHashMap}, and key order otherwise. Beans are only mapped if
+ * their class is given to the constructor, since otherwise every object that no other factory
+ * recognizes would become a struct.
+ *
+ * <p>
+ * Together with {@link CollectionArgumentFactory}, this maps collections of such objects to
+ * ARRAY&lt;STRUCT&gt; parameters, e.g., for use with <code>UNNEST(@rows)</code>. The fields of
+ * each class are found once and cached, so mapping an object costs one accessor call and one
+ * argument conversion per field.
+ */
+public class StructArgumentFactory implements ArgumentFactory {
+  /**
+   * The types of null fields, by field class. Every row of an ARRAY&lt;STRUCT&gt; must have the
+   * same field types, so each type here must be the type the built-in factories give non-null
+   * values of the same class, e.g., BIGNUMERIC for {@link BigDecimal}, per
+   * {@link EssentialsArgumentFactory}.
+   */
+  private static final Map<Class<?>, StandardSQLTypeName> NULL_TYPES;
+  static {
+    Map<Class<?>, StandardSQLTypeName> nullTypes = new HashMap<>();
+    nullTypes.put(String.class, StandardSQLTypeName.STRING);
+    nullTypes.put(Character.class, StandardSQLTypeName.STRING);
+    nullTypes.put(Long.class, StandardSQLTypeName.INT64);
+    nullTypes.put(Integer.class, StandardSQLTypeName.INT64);
+    nullTypes.put(Short.class, StandardSQLTypeName.INT64);
+    nullTypes.put(Byte.class, StandardSQLTypeName.INT64);
+    nullTypes.put(Double.class, StandardSQLTypeName.FLOAT64);
+    nullTypes.put(Float.class, StandardSQLTypeName.FLOAT64);
+    nullTypes.put(Boolean.class, StandardSQLTypeName.BOOL);
+    nullTypes.put(BigDecimal.class, StandardSQLTypeName.BIGNUMERIC);
+    nullTypes.put(byte[].class, StandardSQLTypeName.BYTES);
+    nullTypes.put(Instant.class, StandardSQLTypeName.TIMESTAMP);
+    nullTypes.put(LocalDate.class, StandardSQLTypeName.DATE);
+    nullTypes.put(LocalTime.class, StandardSQLTypeName.TIME);
+    nullTypes.put(LocalDateTime.class, StandardSQLTypeName.DATETIME);
+    NULL_TYPES = nullTypes;
+  }
+
+  private final Set<Class<?>> beanTypes;
+
+  public StructArgumentFactory() {
+    this(new Class<?>[0]);
+  }
+
+  /**
+   * @param beanTypes the bean classes to map to structs, in addition to maps and records
+   */
+  public StructArgumentFactory(Class<?>... beanTypes) {
+    this.beanTypes = unmodifiableSet(new HashSet<>(Arrays.asList(beanTypes)));
+  }
+
+  @Override
+  public Optional<QueryParameterValue> map(Type type, Object value, ConfigRegistry config) {
+    QueryParameterValue result;
+    if (value == null) {
+      result = null;
+    } else if (GenericTypes.isSuperType(Map.class, type)) {
+      result = mapStruct(type, (Map<?, ?>) value, config);
+    } else {
+      Class<?> clazz = GenericTypes.getErasedType(type);
+      if (beanTypes.contains(clazz) || ObjectAccessors.isRecord(clazz))
+        result = objectStruct(ObjectAccessors.beanProperties(clazz), value, config);
+      else
+        result = null;
+    }
+    return Optional.ofNullable(result);
+  }
+
+  private QueryParameterValue mapStruct(Type type, Map<?, ?> map, ConfigRegistry config) {
+    Type valueType = GenericTypes.findGenericParameter(type, Map.class, 1)
+        .filter(StructArgumentFactory::isConcrete).orElse(null);
+
+    for (Object key : map.keySet())
+      if (!(key instanceof String))
+        throw new UnableToCreateStatementException(
+            "Struct field names must be strings, got " + key);
+
+    // Every row of an ARRAY<STRUCT> must have the same fields in the same order
+    @SuppressWarnings("unchecked")
+    Map<String, ?> entries = (Map<String, ?>) map;
+    Map<String, QueryParameterValue> fields = new LinkedHashMap<>();
+    for (String name : Maps.orderedKeys(entries)) {
+      Object value = entries.get(name);
+      Type fieldType = valueType != null ? valueType
+          : value != null ? value.getClass() : Object.class;
+      fields.put(name, mapField(name, fieldType, value, config));
+    }
+
+    return QueryParameterValue.struct(fields);
+  }
+
+  private QueryParameterValue objectStruct(ObjectAccessors accessors, Object object,
+      ConfigRegistry config) {
+    List<String> names = accessors.getNames();
+    Map<String, QueryParameterValue> fields = new LinkedHashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      fields.put(names.get(i),
+          mapField(names.get(i), accessors.getType(i), accessors.getValue(i, object), config));
+    }
+    return QueryParameterValue.struct(fields);
+  }
+
+  private QueryParameterValue mapField(String name, Type type, Object value,
+      ConfigRegistry config) {
+    if (value == null) {
+      StandardSQLTypeName nullType = NULL_TYPES.get(GenericTypes.getErasedType(
+          GenericTypes.box(type)));
+      if (nullType == null)
+        throw new UnableToCreateStatementException(
+            "Cannot determine STRUCT type of null field " + name + " of type " + type);
+      return QueryParameterValue.newBuilder().setType(nullType).build();
+    }
+    return config.get(Arguments.class).findConverter(type).convert(value, config);
+  }
+
+  private static boolean isConcrete(Type type) {
+    return !(type instanceof TypeVariable) && !(type instanceof WildcardType)
+        && !type.equals(Object.class);
+  }
+}
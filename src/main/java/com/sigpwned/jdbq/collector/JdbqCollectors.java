@@ -32,25 +32,31 @@
  */
 package com.sigpwned.jdbq.collector;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collector;
 import com.sigpwned.jdbq.config.JdbqConfig;
+import com.sigpwned.jdbq.internal.ResolutionCache;
 
 /**
  * Registry of collector factories.
  * Contains a set of collector factories, registered by the application.
  */
 public class JdbqCollectors implements JdbqConfig<JdbqCollectors> {
-    private final List<CollectorFactory> factories = new CopyOnWriteArrayList<>();
-    private ConcurrentMap<Type, Optional<CollectorFactory>> factoryCache;
+    private volatile List<CollectorFactory> factories = emptyList();
+
+    /**
+     * The factory found for each container type. Copies of this config share the cache until one
+     * registers a factory, at which point it starts a new cache of its own.
+     */
+    private volatile ResolutionCache<Type, Optional<CollectorFactory>> factoryCache =
+            new ResolutionCache<>();
 
     public JdbqCollectors() {
-        factoryCache = new ConcurrentHashMap<>();
         register(new MapCollectorFactory());
         register(new OptionalCollectorFactory());
         register(new ListCollectorFactory());
@@ -62,12 +68,15 @@ public class JdbqCollectors implements JdbqConfig<JdbqCollectors> {
 
     private JdbqCollectors(JdbqCollectors that) {
         factoryCache = that.factoryCache;
-        factories.addAll(that.factories);
+        factories = that.factories;
     }
 
-    public JdbqCollectors register(CollectorFactory factory) {
-        factories.add(0, factory);
-        factoryCache = new ConcurrentHashMap<>();
+    public synchronized JdbqCollectors register(CollectorFactory factory) {
+        List<CollectorFactory> factories = new ArrayList<>(this.factories.size() + 1);
+        factories.add(factory);
+        factories.addAll(this.factories);
+        this.factories = unmodifiableList(factories);
+        factoryCache = new ResolutionCache<>();
         return this;
     }
 
@@ -94,6 +103,7 @@ public class JdbqCollectors implements JdbqConfig<JdbqCollectors> {
     }
 
     private Optional<CollectorFactory> findFactoryFor(Type containerType) {
+        final ResolutionCache<Type, Optional<CollectorFactory>> factoryCache = this.factoryCache;
         Optional<CollectorFactory> entry = factoryCache.get(containerType);
         if (entry != null) {
             return entry;
@@ -101,8 +111,41 @@ public class JdbqCollectors implements JdbqConfig<JdbqCollectors> {
         entry = factories.stream()
                 .filter(f -> f.accepts(containerType))
                 .findFirst();
-        factoryCache.putIfAbsent(containerType, entry);
-        return entry;
+        return factoryCache.put(containerType, entry);
+    }
+
+    /**
+     * Returns an object that identifies the current collectors of this config. The object changes
+     * whenever a factory is registered, so caches of values that depend on collectors can tell
+     * when to start over.
+     *
+     * @return the current generation of this config
+     */
+    public Object getGeneration() {
+        return factoryCache;
+    }
+
+    /**
+     * @return the number of lookups that found a cached collector factory since the cache was
+     *         last started over
+     */
+    public long getCacheHitCount() {
+        return factoryCache.getHitCount();
+    }
+
+    /**
+     * @return the number of lookups that did not find a cached collector factory since the cache
+     *         was last started over
+     */
+    public long getCacheMissCount() {
+        return factoryCache.getMissCount();
+    }
+
+    /**
+     * @return the number of cached collector factory lookups
+     */
+    public int getCacheSize() {
+        return factoryCache.size();
     }
 
     @Override
@@ -37,6 +37,7 @@ import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import org.apache.http.client.methods.Configurable;
 import com.sigpwned.jdbq.argument.Arguments;
+import com.sigpwned.jdbq.collector.JdbqCollectors;
 import com.sigpwned.jdbq.mapper.Mappers;
 import com.sigpwned.jdbq.mapper.column.ColumnMappers;
 import com.sigpwned.jdbq.mapper.row.RowMappers;
@@ -55,6 +56,9 @@ public final class ConfigRegistry {
    */
   public ConfigRegistry() {
     configs = new ConcurrentHashMap<>();
+    // Create every config whose generation others depend on up front, so that copies share it,
+    // and with it the caches of the configs that depend on it.
+    get(JdbqCollectors.class);
     get(SqlStatements.class);
     get(Arguments.class);
     get(RowMappers.class);
@@ -30,16 +30,36 @@
  */
 package com.sigpwned.jdbq.generic;
 
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Member;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import com.sigpwned.jdbq.internal.BoundedCache;
 import io.leangen.geantyref.GenericTypeReflector;
 import io.leangen.geantyref.TypeFactory;
 
 /**
  * Utilities for working with generic types.
+ *
+ * <p>
+ * The results of {@link #findGenericParameter(Type, Class, int)}, {@link #resolveType(Type, Type)}
+ * and {@link #isSuperType(Type, Type)} are memoized, since they are called for every argument bound
+ * and every mapper lookup, and walking the type hierarchy reflectively is comparatively expensive.
+ * Results are cached with a {@link ClassValue} against the class in each resolution with the most
+ * specific class loader, e.g., against {@code MyDto} rather than {@code List} for
+ * {@code List<MyDto>}. A cached result can then only refer to classes from that class loader or its
+ * ancestors, so it never keeps an application's class loader from being collected. Resolutions
+ * that mix classes from unrelated class loaders are not cached. Each class caches a bounded number
+ * of results.
  */
 @SuppressWarnings("rawtypes")
 public final class GenericTypes {
@@ -54,6 +74,148 @@ public final class GenericTypes {
     VALUE = mapParams[1];
   }
 
+  /**
+   * The most results to cache for any one class
+   */
+  private static final int MAXIMUM_RESOLUTIONS_PER_CLASS = 256;
+
+  /**
+   * The memoized results of type resolutions, grouped by the class of the type being examined
+   */
+  private static final ClassValue<BoundedCache<Resolution, Object>> RESOLUTIONS =
+      new ClassValue<BoundedCache<Resolution, Object>>() {
+        @Override
+        protected BoundedCache<Resolution, Object> computeValue(Class<?> type) {
+          return new BoundedCache<>(MAXIMUM_RESOLUTIONS_PER_CLASS);
+        }
+      };
+
+  /**
+   * The key of a memoized type resolution
+   */
+  private static final class Resolution {
+    private final int operation;
+    private final Type first;
+    private final Type second;
+    private final int n;
+
+    public Resolution(int operation, Type first, Type second, int n) {
+      this.operation = operation;
+      this.first = first;
+      this.second = second;
+      this.n = n;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(operation, first, second, n);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      Resolution other = (Resolution) obj;
+      return operation == other.operation && n == other.n && Objects.equals(first, other.first)
+          && Objects.equals(second, other.second);
+    }
+  }
+
+  private static final int FIND_GENERIC_PARAMETER = 1;
+
+  private static final int RESOLVE_TYPE = 2;
+
+  private static final int IS_SUPER_TYPE = 3;
+
+  /**
+   * Returns the memoized result of the given resolution, computing it first if necessary. Results
+   * are cached against the class returned by {@link #findCacheClass(Type...)} for the types being
+   * resolved, or computed every time if there is no such class.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> T memoize(Type first, Type second, Resolution resolution,
+      Supplier<T> computation) {
+    final Class<?> cacheClass = findCacheClass(first, second);
+    if (cacheClass == null)
+      return computation.get();
+    return (T) RESOLUTIONS.get(cacheClass).computeIfAbsent(resolution, r -> computation.get());
+  }
+
+  /**
+   * Returns the class named in the given types whose class loader is a descendant of (or the same
+   * as) the class loader of every other class named in them. A value cached against that class can
+   * only keep alive class loaders that the class keeps alive anyway. Returns null if the classes
+   * come from unrelated class loaders, or if the types name no classes at all.
+   */
+  private static Class<?> findCacheClass(Type... types) {
+    final Set<Class<?>> classes = new HashSet<>();
+    for (Type type : types)
+      collectClasses(type, classes);
+
+    Class<?> result = null;
+    for (Class<?> candidate : classes) {
+      if (result == null || isAncestor(result.getClassLoader(), candidate.getClassLoader())) {
+        result = candidate;
+      } else if (!isAncestor(candidate.getClassLoader(), result.getClassLoader())) {
+        return null;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Adds every class named in the given type to the given set, e.g., {@code List} and
+   * {@code MyDto} for {@code List<MyDto>}. Type variables contribute the class or method that
+   * declares them, rather than their bounds, which are declared there too.
+   */
+  private static void collectClasses(Type type, Set<Class<?>> classes) {
+    if (type instanceof Class<?>) {
+      Class<?> clazz = (Class<?>) type;
+      while (clazz.isArray())
+        clazz = clazz.getComponentType();
+      classes.add(clazz);
+    } else if (type instanceof ParameterizedType) {
+      ParameterizedType parameterizedType = (ParameterizedType) type;
+      collectClasses(parameterizedType.getRawType(), classes);
+      if (parameterizedType.getOwnerType() != null)
+        collectClasses(parameterizedType.getOwnerType(), classes);
+      for (Type argument : parameterizedType.getActualTypeArguments())
+        collectClasses(argument, classes);
+    } else if (type instanceof GenericArrayType) {
+      collectClasses(((GenericArrayType) type).getGenericComponentType(), classes);
+    } else if (type instanceof WildcardType) {
+      WildcardType wildcardType = (WildcardType) type;
+      for (Type bound : wildcardType.getUpperBounds())
+        collectClasses(bound, classes);
+      for (Type bound : wildcardType.getLowerBounds())
+        collectClasses(bound, classes);
+    } else if (type instanceof TypeVariable<?>) {
+      GenericDeclaration declaration = ((TypeVariable<?>) type).getGenericDeclaration();
+      if (declaration instanceof Class<?>)
+        classes.add((Class<?>) declaration);
+      else if (declaration instanceof Member)
+        classes.add(((Member) declaration).getDeclaringClass());
+    }
+  }
+
+  /**
+   * Returns true if the given ancestor is the given class loader or one of its parents. The
+   * bootstrap class loader, which is null, is an ancestor of every class loader.
+   */
+  private static boolean isAncestor(ClassLoader ancestor, ClassLoader classLoader) {
+    if (ancestor == null)
+      return true;
+    for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent())
+      if (cl == ancestor)
+        return true;
+    return false;
+  }
+
   /**
    * Returns the erased class for the given type.
    *
@@ -108,8 +270,11 @@ public final class GenericTypes {
    */
   public static Optional<Type> findGenericParameter(Type type, Class<?> parameterizedSupertype,
       int n) {
-    return Optional.ofNullable(
-        GenericTypeReflector.getTypeParameter(type, parameterizedSupertype.getTypeParameters()[n]));
+    final TypeVariable<? extends Class<?>> parameter =
+        parameterizedSupertype.getTypeParameters()[n];
+    return memoize(type, parameterizedSupertype,
+        new Resolution(FIND_GENERIC_PARAMETER, type, parameterizedSupertype, n),
+        () -> Optional.ofNullable(GenericTypeReflector.getTypeParameter(type, parameter)));
   }
 
   /**
@@ -123,7 +288,8 @@ public final class GenericTypes {
    * @return the resolved type.
    */
   public static Type resolveType(Type type, Type contextType) {
-    return GenericTypeReflector.resolveType(type, contextType);
+    return memoize(type, contextType, new Resolution(RESOLVE_TYPE, type, contextType, 0),
+        () -> GenericTypeReflector.resolveType(type, contextType));
   }
 
   /**
@@ -205,6 +371,9 @@ public final class GenericTypes {
    * @return True if supertype is a supertype of subtype.
    */
   public static boolean isSuperType(Type superType, Type subType) {
-    return GenericTypeReflector.isSuperType(superType, subType);
+    Boolean result = memoize(superType, subType,
+        new Resolution(IS_SUPER_TYPE, superType, subType, 0),
+        () -> GenericTypeReflector.isSuperType(superType, subType));
+    return result.booleanValue();
   }
 }
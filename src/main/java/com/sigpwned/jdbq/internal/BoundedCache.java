@@ -0,0 +1,166 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.internal;
+
+import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A concurrent cache that holds at most a fixed number of entries. When the cache grows past its
+ * maximum size, the oldest entries are evicted first. Lookups take no locks and do no bookkeeping
+ * beyond the hit and miss counters, which suits caches whose working set usually fits.
+ */
+public final class BoundedCache<K, V> {
+  private final int maximumSize;
+  private final ConcurrentMap<K, V> entries;
+  private final Queue<K> insertionOrder;
+  private final AtomicInteger size;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+
+  /**
+   * @param maximumSize the maximum number of entries to hold. If zero, then nothing is cached.
+   */
+  public BoundedCache(int maximumSize) {
+    if (maximumSize < 0)
+      throw new IllegalArgumentException("maximumSize must not be negative");
+    this.maximumSize = maximumSize;
+    this.entries = new ConcurrentHashMap<>();
+    this.insertionOrder = new ConcurrentLinkedQueue<>();
+    this.size = new AtomicInteger(0);
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.evictions = new LongAdder();
+  }
+
+  /**
+   * Returns the cached value for the given key, if any.
+   */
+  public V get(K key) {
+    V result = entries.get(key);
+    if (result != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return result;
+  }
+
+  /**
+   * Returns the cached value for the given key, computing and caching it first if necessary. The
+   * value may be computed more than once if several threads miss on the same key at the same time,
+   * but only one value is ever cached. Null values are returned, but not cached.
+   */
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    // We'd use ConcurrentHashMap#computeIfAbsent here, but it locks even on hits in Java 8. See
+    // JDK-8161372. Also, we don't want to hold a lock while we compute the value.
+    V result = get(key);
+    if (result != null)
+      return result;
+
+    result = mappingFunction.apply(key);
+    if (result == null)
+      return null;
+
+    put(key, result);
+
+    return result;
+  }
+
+  /**
+   * Caches the given value for the given key, unless a value is already cached.
+   */
+  public void put(K key, V value) {
+    requireNonNull(key);
+    requireNonNull(value);
+
+    if (maximumSize == 0)
+      return;
+
+    if (entries.putIfAbsent(key, value) == null) {
+      insertionOrder.offer(key);
+      if (size.incrementAndGet() > maximumSize)
+        evict();
+    }
+  }
+
+  /**
+   * Removes all entries. Counters are not reset.
+   */
+  public void clear() {
+    K key;
+    while ((key = insertionOrder.poll()) != null) {
+      if (entries.remove(key) != null)
+        size.decrementAndGet();
+    }
+  }
+
+  private void evict() {
+    K key;
+    while (size.get() > maximumSize && (key = insertionOrder.poll()) != null) {
+      if (entries.remove(key) != null) {
+        size.decrementAndGet();
+        evictions.increment();
+      }
+    }
+  }
+
+  /**
+   * @return the number of entries currently cached
+   */
+  public int size() {
+    return size.get();
+  }
+
+  /**
+   * @return the maximumSize
+   */
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * @return the number of lookups that found a cached value
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of lookups that did not find a cached value
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of entries evicted to keep the cache under its maximum size
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+}
@@ -0,0 +1,44 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+public final class Maps {
+  private Maps() {}
+
+  /**
+   * Returns the keys of the given map in a stable order. If the map has a defined iteration order,
+   * i.e., it is a {@link SortedMap} or a {@link LinkedHashMap}, then that order is kept. Otherwise,
+   * e.g., for a {@link java.util.HashMap}, whose order can differ between maps with the same keys,
+   * the keys are sorted.
+   */
+  public static List<String> orderedKeys(Map<String, ?> map) {
+    List<String> result = new ArrayList<>(map.keySet());
+    if (!(map instanceof SortedMap) && !(map instanceof LinkedHashMap))
+      Collections.sort(result);
+    return result;
+  }
+}
@@ -0,0 +1,110 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent cache of resolved values, e.g., the mapper found for each type, that is shared by a
+ * config object and all of its copies. Config copies are made for every handle and statement, so a
+ * cache that each copy filled on its own would be thrown away with the statement. Instead, every
+ * copy reads and writes the cache it inherited, and a copy only starts a new cache of its own when
+ * it changes something the cached values depend on, e.g., by registering a factory.
+ *
+ * <p>
+ * Each cache is stamped with the generations of the other configs its values depend on. A config
+ * checks the stamp against the current generations of those configs before using the cache, and
+ * uses a different cache if they differ. A cache object itself serves as the generation of the
+ * config that owns it, so dependents notice when that config starts a new cache.
+ *
+ * @see ResolutionCaches
+ */
+public final class ResolutionCache<K, V> {
+  private final Object[] stamp;
+  private final ConcurrentHashMap<K, V> entries;
+  private final LongAdder hits;
+  private final LongAdder misses;
+
+  /**
+   * @param stamp the generations of the configs the cached values depend on
+   */
+  public ResolutionCache(Object... stamp) {
+    this.stamp = stamp.clone();
+    this.entries = new ConcurrentHashMap<>();
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+  }
+
+  /**
+   * Returns true if this cache was created for the given generations, compared by identity.
+   */
+  public boolean isStampedWith(Object... stamp) {
+    if (stamp.length != this.stamp.length)
+      return false;
+    for (int i = 0; i < stamp.length; i++)
+      if (stamp[i] != this.stamp[i])
+        return false;
+    return true;
+  }
+
+  /**
+   * Returns the cached value for the given key, if any.
+   */
+  public V get(K key) {
+    V result = entries.get(key);
+    if (result != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return result;
+  }
+
+  /**
+   * Caches the given value for the given key. If another thread cached a value for the key first,
+   * then that value is kept and returned. Otherwise, the given value is returned.
+   */
+  public V put(K key, V value) {
+    V existing = entries.putIfAbsent(key, value);
+    return existing != null ? existing : value;
+  }
+
+  /**
+   * @return the number of cached values
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return the number of lookups that found a cached value
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of lookups that did not find a cached value
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+}
@@ -0,0 +1,124 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.internal;
+
+import java.util.Arrays;
+
+/**
+ * The {@link ResolutionCache}s of a config and all of its copies, one for each combination of
+ * generations of the configs the cached values depend on. Copies share this object until one of
+ * them registers something, at which point it starts a new one of its own.
+ *
+ * <p>
+ * Because the cache for a combination of generations is kept here, rather than by whichever config
+ * object happened to create it, every copy that sees the same generations uses the same cache, no
+ * matter which copy created it, or whether the original config ever used it. A copy whose
+ * dependencies really differ, e.g., because a column mapper was registered on its handle, gets a
+ * cache of its own. Only a few combinations are kept, and the oldest are evicted first, so caches
+ * for the dependencies of short-lived copies do not accumulate.
+ */
+public final class ResolutionCaches<K, V> {
+  /**
+   * The most combinations of generations to keep caches for
+   */
+  private static final int MAXIMUM_STAMPS = 16;
+
+  /**
+   * A combination of generations, compared by identity
+   */
+  private static final class Stamp {
+    private final Object[] generations;
+
+    public Stamp(Object[] generations) {
+      this.generations = generations;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = 1;
+      for (Object generation : generations)
+        result = 31 * result + System.identityHashCode(generation);
+      return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      Stamp other = (Stamp) obj;
+      if (generations.length != other.generations.length)
+        return false;
+      for (int i = 0; i < generations.length; i++)
+        if (generations[i] != other.generations[i])
+          return false;
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.toString(generations);
+    }
+  }
+
+  private final BoundedCache<Stamp, ResolutionCache<K, V>> caches;
+
+  /**
+   * The cache most recently returned, which is usually the one the next caller wants
+   */
+  private volatile ResolutionCache<K, V> last;
+
+  public ResolutionCaches() {
+    this.caches = new BoundedCache<>(MAXIMUM_STAMPS);
+  }
+
+  /**
+   * Returns the cache for the given generations of the configs the cached values depend on,
+   * starting it first if necessary. Every caller that passes the same generations, compared by
+   * identity, gets the same cache, unless it has since been evicted.
+   *
+   * @param stamp the generations of the configs the cached values depend on
+   * @return the cache
+   */
+  public ResolutionCache<K, V> get(Object... stamp) {
+    ResolutionCache<K, V> result = last;
+    if (result != null && result.isStampedWith(stamp))
+      return result;
+
+    final Stamp key = new Stamp(stamp.clone());
+    result = caches.get(key);
+    if (result == null) {
+      ResolutionCache<K, V> created = new ResolutionCache<>(stamp);
+      caches.put(key, created);
+
+      // If another thread started a cache for the same generations first, then use that one.
+      result = caches.get(key);
+      if (result == null)
+        result = created;
+    }
+
+    last = result;
+
+    return result;
+  }
+}
@@ -0,0 +1,46 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.internal;
+
+import java.util.OptionalInt;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.Schema;
+
+public final class Schemas {
+  private Schemas() {}
+
+  /**
+   * Returns the index of the column with the given name in the given schema, if any. Names are
+   * matched exactly, which is how {@link com.google.cloud.bigquery.FieldValueList#get(String)}
+   * looks up columns.
+   */
+  public static OptionalInt findColumnIndex(Schema schema, String name) {
+    final FieldList fields = schema.getFields();
+    if (fields == null)
+      return OptionalInt.empty();
+    for (int i = 0; i < fields.size(); i++) {
+      Field field = fields.get(i);
+      if (field.getName().equals(name))
+        return OptionalInt.of(i);
+    }
+    return OptionalInt.empty();
+  }
+}
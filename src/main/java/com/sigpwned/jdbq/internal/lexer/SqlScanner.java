@@ -0,0 +1,341 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.internal.lexer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A hand-written, single-pass scanner for the statement syntaxes understood by jdbq's SQL parser
+ * and template engines. It recognizes exactly the same quoting, comment, escape, and
+ * <code>::</code>/<code>??</code> rules as the ANTLR grammars {@code ColonStatementLexer},
+ * {@code DefineStatementLexer}, and {@code QueryFragmentStatementLexer}, but it reports each
+ * maximal run of verbatim text -- plain characters, comments, and quoted text -- as a single
+ * {@link TokenType#LITERAL} token, and does not allocate per token. Tokens are reported as
+ * {@link #getStart() start} and {@link #getEnd() end} indexes into the scanned text.
+ *
+ * <pre>
+ * SqlScanner scanner = new SqlScanner(Grammar.COLON, sql);
+ * while (scanner.next()) {
+ *   switch (scanner.getType()) {
+ *     ...
+ *   }
+ * }
+ * </pre>
+ */
+public final class SqlScanner {
+  /**
+   * The statement syntaxes this scanner supports.
+   */
+  public static enum Grammar {
+    /**
+     * Named parameters like <code>:name</code> and positional parameters like <code>?</code>, as
+     * in {@code ColonStatementLexer}.
+     */
+    COLON(true, true, false, true),
+
+    /**
+     * Attribute definitions like <code>&lt;name&gt;</code>, as in {@code DefineStatementLexer}.
+     */
+    DEFINE(false, false, true, false),
+
+    /**
+     * Attribute definitions like <code>&lt;name&gt;</code> and named parameters like
+     * <code>:name</code>, as in {@code QueryFragmentStatementLexer}.
+     */
+    QUERY_FRAGMENT(true, false, true, true),
+
+    /**
+     * Attribute definitions like <code>&lt;name&gt;</code>, named parameters like
+     * <code>:name</code>, and positional parameters like <code>?</code>, for rendering and parsing
+     * in one pass. Attribute names follow {@link #DEFINE}, and parameters follow {@link #COLON}.
+     */
+    COLON_DEFINE(true, true, true, false);
+
+    private final boolean namedParameters;
+    private final boolean positionalParameters;
+    private final boolean defines;
+    private final boolean dottedDefineNames;
+
+    private Grammar(boolean namedParameters, boolean positionalParameters, boolean defines,
+        boolean dottedDefineNames) {
+      this.namedParameters = namedParameters;
+      this.positionalParameters = positionalParameters;
+      this.defines = defines;
+      this.dottedDefineNames = dottedDefineNames;
+    }
+  }
+
+  public static enum TokenType {
+    /**
+     * Text to be copied verbatim, including comments and quoted text
+     */
+    LITERAL,
+
+    /**
+     * A backslash followed by any character, which stands for that character
+     */
+    ESCAPED_TEXT,
+
+    /**
+     * A named parameter, e.g., <code>:name</code>
+     */
+    NAMED_PARAM,
+
+    /**
+     * A positional parameter, i.e., <code>?</code>
+     */
+    POSITIONAL_PARAM,
+
+    /**
+     * An attribute definition, e.g., <code>&lt;name&gt;</code>
+     */
+    DEFINE;
+  }
+
+  private final Grammar grammar;
+  private final String text;
+  private final int length;
+  private int position;
+  private TokenType type;
+  private int start;
+  private int end;
+
+  /**
+   * The token following the current literal run, which is found while finding the end of the run
+   */
+  private TokenType pendingType;
+  private int pendingEnd;
+
+  /**
+   * The type of the token most recently matched by {@link #match(int)}
+   */
+  private TokenType matchType;
+
+  public SqlScanner(Grammar grammar, String text) {
+    this.grammar = requireNonNull(grammar);
+    this.text = requireNonNull(text);
+    this.length = text.length();
+    this.position = 0;
+  }
+
+  /**
+   * Advances to the next token.
+   *
+   * @return {@code true} if there is a current token, or {@code false} if the text is exhausted
+   */
+  public boolean next() {
+    if (pendingType != null) {
+      type = pendingType;
+      start = position;
+      end = pendingEnd;
+      position = end;
+      pendingType = null;
+      return true;
+    }
+
+    if (position >= length) {
+      type = null;
+      start = end = length;
+      return false;
+    }
+
+    start = position;
+    end = match(position);
+    type = matchType;
+    if (type == TokenType.LITERAL) {
+      while (end < length) {
+        int tokenEnd = match(end);
+        if (matchType != TokenType.LITERAL) {
+          pendingType = matchType;
+          pendingEnd = tokenEnd;
+          break;
+        }
+        end = tokenEnd;
+      }
+    }
+    position = end;
+
+    return true;
+  }
+
+  /**
+   * @return the type of the current token
+   */
+  public TokenType getType() {
+    return type;
+  }
+
+  /**
+   * @return the index of the first character of the current token
+   */
+  public int getStart() {
+    return start;
+  }
+
+  /**
+   * @return the index after the last character of the current token
+   */
+  public int getEnd() {
+    return end;
+  }
+
+  /**
+   * @return the full text of the current token
+   */
+  public String getText() {
+    return text.substring(start, end);
+  }
+
+  /**
+   * Returns the name of the current token, without its markers. For example, returns
+   * <code>name</code> for both <code>:name</code> and <code>&lt;name&gt;</code>.
+   *
+   * @throws IllegalStateException if the current token is not a named parameter or a definition
+   */
+  public String getName() {
+    if (type == TokenType.NAMED_PARAM)
+      return text.substring(start + 1, end);
+    if (type == TokenType.DEFINE)
+      return text.substring(start + 1, end - 1);
+    throw new IllegalStateException("current token has no name");
+  }
+
+  /**
+   * Matches the single grammar token starting at the given index, sets {@link #matchType}, and
+   * returns the index after its end. Comments, quoted text, and other verbatim text are all
+   * matched as {@link TokenType#LITERAL}. When more than one rule matches, the longest match wins,
+   * per the ANTLR grammars.
+   */
+  private int match(int i) {
+    matchType = TokenType.LITERAL;
+    switch (text.charAt(i)) {
+      case '\\':
+        if (i + 1 < length) {
+          matchType = TokenType.ESCAPED_TEXT;
+          return i + 2;
+        }
+        return i + 1;
+      case '/':
+        if (i + 1 < length && text.charAt(i + 1) == '*') {
+          int close = text.indexOf("*/", i + 2);
+          if (close != -1)
+            return close + 2;
+        } else if (i + 1 < length && text.charAt(i + 1) == '/') {
+          return lineEnd(i + 2);
+        }
+        return i + 1;
+      case '-':
+        if (i + 1 < length && text.charAt(i + 1) == '-')
+          return lineEnd(i + 2);
+        return i + 1;
+      case '\'':
+        return quotedTextEnd(i);
+      case '"': {
+        int close = text.indexOf('"', i + 1);
+        return close > i + 1 ? close + 1 : i + 1;
+      }
+      case ':': {
+        if (!grammar.namedParameters)
+          return i + 1;
+        if (i + 1 < length && text.charAt(i + 1) == ':')
+          return i + 2;
+        int nameEnd = nameEnd(i + 1, true);
+        if (nameEnd > i + 1) {
+          matchType = TokenType.NAMED_PARAM;
+          return nameEnd;
+        }
+        return i + 1;
+      }
+      case '?':
+        if (!grammar.positionalParameters)
+          return i + 1;
+        if (i + 1 < length && text.charAt(i + 1) == '?')
+          return i + 2;
+        matchType = TokenType.POSITIONAL_PARAM;
+        return i + 1;
+      case '<': {
+        if (!grammar.defines)
+          return i + 1;
+        int nameEnd = nameEnd(i + 1, grammar.dottedDefineNames);
+        if (nameEnd > i + 1 && nameEnd < length && text.charAt(nameEnd) == '>') {
+          matchType = TokenType.DEFINE;
+          return nameEnd + 1;
+        }
+        return i + 1;
+      }
+      default:
+        return i + 1;
+    }
+  }
+
+  /**
+   * Returns the index of the first line terminator at or after the given index, or the length of
+   * the text if there is none.
+   */
+  private int lineEnd(int i) {
+    while (i < length && text.charAt(i) != '\r' && text.charAt(i) != '\n')
+      i = i + 1;
+    return i;
+  }
+
+  /**
+   * Returns the end of the quoted text starting at the given index, or the index after the opening
+   * quote if the quote is unterminated. A quote preceded by a backslash may either close the text
+   * or be an escaped quote, so the quoted text ends at the last quote before the first quote that
+   * is not preceded by a backslash.
+   */
+  private int quotedTextEnd(int i) {
+    int result = i + 1;
+    for (int j = i + 1; j < length; j++) {
+      if (text.charAt(j) == '\'') {
+        result = j + 1;
+        if (text.charAt(j - 1) != '\\')
+          break;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the index after the longest run of name characters starting at the given index. Dotted
+   * names may also contain <code>.</code> and <code>?.</code>.
+   */
+  private int nameEnd(int i, boolean dotted) {
+    while (i < length) {
+      char ch = text.charAt(i);
+      if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')
+          || ch == '$' || ch == '_') {
+        i = i + 1;
+      } else if (ch >= 0x80 && !Character.isHighSurrogate(ch)) {
+        i = i + 1;
+      } else if (Character.isHighSurrogate(ch) && i + 1 < length
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        i = i + 2;
+      } else if (dotted && ch == '.') {
+        i = i + 1;
+      } else if (dotted && ch == '?' && i + 1 < length && text.charAt(i + 1) == '.') {
+        i = i + 2;
+      } else {
+        break;
+      }
+    }
+    return i;
+  }
+}
@@ -0,0 +1,255 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.job;
+
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobStatus;
+
+/**
+ * Waits for BigQuery jobs to complete on behalf of every statement executed through a
+ * {@link com.sigpwned.jdbq.Jdbq} instance. Rather than each statement polling its own job from its
+ * own thread, a small shared pool polls all outstanding jobs and completes one future per job.
+ *
+ * <p>
+ * Each job is polled with exponential backoff, starting at {@link #getMinimumDelayMillis()} and
+ * doubling up to {@link #getMaximumDelayMillis()}. Each poll is one request. Under heavy fan-out,
+ * polls that are due also wait their turn, first come first served, so that the aggregate polling
+ * rate across all outstanding jobs stays at or below {@link #getMaximumRequestsPerSecond()}.
+ * Futures are completed on the completion executor, so dependent stages never run on the polling
+ * threads.
+ *
+ * <p>
+ * A poller has no lifecycle of its own. The default scheduler's threads are daemons that exit once
+ * idle, and a scheduler given to a constructor remains the caller's to shut down.
+ */
+public class JobPoller {
+  public static final int DEFAULT_THREADS = 2;
+
+  public static final long DEFAULT_MINIMUM_DELAY_MILLIS = 50L;
+
+  public static final long DEFAULT_MAXIMUM_DELAY_MILLIS = 2000L;
+
+  public static final int DEFAULT_MAXIMUM_REQUESTS_PER_SECOND = 50;
+
+  private static final AtomicInteger POLLER_NUMBERS = new AtomicInteger(1);
+
+  private static ScheduledExecutorService newDefaultScheduler(int threads) {
+    final String prefix = "jdbq-job-poller-" + POLLER_NUMBERS.getAndIncrement() + "-";
+    final AtomicInteger threadNumbers = new AtomicInteger(1);
+    final ThreadFactory threadFactory = r -> {
+      Thread result = new Thread(r, prefix + threadNumbers.getAndIncrement());
+      result.setDaemon(true);
+      return result;
+    };
+
+    ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(threads, threadFactory);
+    result.setKeepAliveTime(60L, TimeUnit.SECONDS);
+    result.allowCoreThreadTimeOut(true);
+    result.setRemoveOnCancelPolicy(true);
+
+    return result;
+  }
+
+  private final ScheduledExecutorService scheduler;
+  private final Executor completionExecutor;
+  private final long minimumDelayMillis;
+  private final long maximumDelayMillis;
+  private final int maximumRequestsPerSecond;
+  private final AtomicInteger outstanding;
+
+  /**
+   * The {@link System#nanoTime()} at which the next poll may be sent without exceeding the maximum
+   * request rate
+   */
+  private final AtomicLong nextPermitNanos;
+
+  public JobPoller() {
+    this(DEFAULT_THREADS);
+  }
+
+  public JobPoller(int threads) {
+    this(newDefaultScheduler(threads), ForkJoinPool.commonPool());
+  }
+
+  public JobPoller(ScheduledExecutorService scheduler, Executor completionExecutor) {
+    this(scheduler, completionExecutor, DEFAULT_MINIMUM_DELAY_MILLIS, DEFAULT_MAXIMUM_DELAY_MILLIS,
+        DEFAULT_MAXIMUM_REQUESTS_PER_SECOND);
+  }
+
+  public JobPoller(ScheduledExecutorService scheduler, Executor completionExecutor,
+      long minimumDelayMillis, long maximumDelayMillis, int maximumRequestsPerSecond) {
+    if (minimumDelayMillis <= 0L)
+      throw new IllegalArgumentException("minimumDelayMillis must be positive");
+    if (maximumDelayMillis < minimumDelayMillis)
+      throw new IllegalArgumentException("maximumDelayMillis must be at least minimumDelayMillis");
+    if (maximumRequestsPerSecond <= 0)
+      throw new IllegalArgumentException("maximumRequestsPerSecond must be positive");
+    this.scheduler = requireNonNull(scheduler);
+    this.completionExecutor = requireNonNull(completionExecutor);
+    this.minimumDelayMillis = minimumDelayMillis;
+    this.maximumDelayMillis = maximumDelayMillis;
+    this.maximumRequestsPerSecond = maximumRequestsPerSecond;
+    this.outstanding = new AtomicInteger(0);
+    this.nextPermitNanos = new AtomicLong(System.nanoTime());
+  }
+
+  /**
+   * Returns a future that completes with the reloaded job once the given job is done. Cancelling
+   * the returned future stops polling the job, but does not cancel the job itself.
+   *
+   * @param job the job to watch
+   * @return a future of the completed job
+   */
+  public CompletableFuture<Job> watch(Job job) {
+    requireNonNull(job);
+    CompletableFuture<Job> result = new CompletableFuture<>();
+    outstanding.incrementAndGet();
+    result.whenComplete((j, e) -> outstanding.decrementAndGet());
+    schedule(job, result, getMinimumDelayMillis());
+    return result;
+  }
+
+  /**
+   * @return the number of jobs currently being watched
+   */
+  public int getOutstandingJobCount() {
+    return outstanding.get();
+  }
+
+  /**
+   * @return the minimumDelayMillis
+   */
+  public long getMinimumDelayMillis() {
+    return minimumDelayMillis;
+  }
+
+  /**
+   * @return the maximumDelayMillis
+   */
+  public long getMaximumDelayMillis() {
+    return maximumDelayMillis;
+  }
+
+  /**
+   * @return the maximumRequestsPerSecond
+   */
+  public int getMaximumRequestsPerSecond() {
+    return maximumRequestsPerSecond;
+  }
+
+  private void schedule(Job job, CompletableFuture<Job> result, long delayMillis) {
+    getScheduler().schedule(() -> throttle(job, result, delayMillis), delayMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Polls the given job now if the request rate allows, or else once its turn comes.
+   */
+  private void throttle(Job job, CompletableFuture<Job> result, long delayMillis) {
+    if (result.isDone())
+      return;
+
+    long waitNanos = reservePermit();
+    if (waitNanos <= 0L)
+      poll(job, result, delayMillis);
+    else
+      getScheduler().schedule(() -> poll(job, result, delayMillis), waitNanos,
+          TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Reserves the next free slot for a poll, and returns how long until it arrives. Slots are spaced
+   * so that polls never exceed the maximum request rate, and idle time does not accumulate into a
+   * burst.
+   */
+  private long reservePermit() {
+    final long intervalNanos = TimeUnit.SECONDS.toNanos(1L) / getMaximumRequestsPerSecond();
+    final long now = System.nanoTime();
+
+    long next;
+    long permit;
+    do {
+      next = nextPermitNanos.get();
+      permit = next - now > 0L ? next : now;
+    } while (!nextPermitNanos.compareAndSet(next, permit + intervalNanos));
+
+    return permit - now;
+  }
+
+  /**
+   * Fetches the given job once, and completes the given future if the job is done, or schedules the
+   * next poll otherwise.
+   */
+  private void poll(Job job, CompletableFuture<Job> result, long delayMillis) {
+    if (result.isDone())
+      return;
+
+    final Job completed;
+    try {
+      completed = job.reload();
+      if (completed == null)
+        throw new BigQueryException(404, "Job not found: " + job.getJobId());
+
+      JobStatus status = completed.getStatus();
+      if (status == null || status.getState() != JobStatus.State.DONE) {
+        schedule(job, result, nextDelayMillis(delayMillis));
+        return;
+      }
+    } catch (RuntimeException e) {
+      getCompletionExecutor().execute(() -> result.completeExceptionally(e));
+      return;
+    }
+
+    getCompletionExecutor().execute(() -> result.complete(completed));
+  }
+
+  /**
+   * Returns the delay before the next poll of a job that was last polled after the given delay.
+   * The delay doubles up to the maximum delay.
+   */
+  private long nextDelayMillis(long delayMillis) {
+    return Math.min(2L * delayMillis, getMaximumDelayMillis());
+  }
+
+  /**
+   * @return the scheduler
+   */
+  private ScheduledExecutorService getScheduler() {
+    return scheduler;
+  }
+
+  /**
+   * @return the completionExecutor
+   */
+  private Executor getCompletionExecutor() {
+    return completionExecutor;
+  }
+}
@@ -19,16 +19,20 @@
  */
 package com.sigpwned.jdbq.mapper.column;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import com.sigpwned.jdbq.collector.JdbqCollectors;
 import com.sigpwned.jdbq.config.ConfigRegistry;
 import com.sigpwned.jdbq.config.JdbqConfig;
 import com.sigpwned.jdbq.generic.GenericType;
 import com.sigpwned.jdbq.generic.GenericTypes;
 import com.sigpwned.jdbq.internal.Optionals;
+import com.sigpwned.jdbq.internal.ResolutionCache;
+import com.sigpwned.jdbq.internal.ResolutionCaches;
 import com.sigpwned.jdbq.mapper.column.factory.ArrayMapperFactory;
 import com.sigpwned.jdbq.mapper.column.factory.BoxedMapperFactory;
 import com.sigpwned.jdbq.mapper.column.factory.EnumMapperFactory;
@@ -43,9 +47,20 @@ import com.sigpwned.jdbq.mapper.row.RowMapper;
  * Configuration registry for {@link ColumnMapperFactory} instances.
  */
 public class ColumnMappers implements JdbqConfig<ColumnMappers> {
-  private final List<ColumnMapperFactory> factories = new CopyOnWriteArrayList<>();
-  private final ConcurrentHashMap<Type, Optional<? extends ColumnMapper<?>>> cache =
-      new ConcurrentHashMap<>();
+  /**
+   * The registered factories, most recent first. The list is immutable, so copies of this config
+   * share it until either one registers a factory, at which point it gets a list of its own.
+   */
+  private volatile List<ColumnMapperFactory> factories = emptyList();
+
+  /**
+   * The mapper found for each type. Copies of this config share the caches, so mappers found while
+   * running one statement are reused by every other statement. There is one cache for each
+   * generation of the collectors, which mappers may use, and a copy starts new caches of its own
+   * when it registers a factory or changes a setting.
+   */
+  private volatile ResolutionCaches<Type, Optional<? extends ColumnMapper<?>>> caches =
+      new ResolutionCaches<>();
 
   private boolean coalesceNullPrimitivesToDefaults = true;
   private ConfigRegistry registry;
@@ -62,8 +77,8 @@ public class ColumnMappers implements JdbqConfig<ColumnMappers> {
   }
 
   private ColumnMappers(ColumnMappers that) {
-    factories.addAll(that.factories);
-    cache.putAll(that.cache);
+    factories = that.factories;
+    caches = that.caches;
     coalesceNullPrimitivesToDefaults = that.coalesceNullPrimitivesToDefaults;
   }
 
@@ -124,9 +139,12 @@ public class ColumnMappers implements JdbqConfig<ColumnMappers> {
    * @param factory the column mapper factory
    * @return this
    */
-  public ColumnMappers register(ColumnMapperFactory factory) {
-    factories.add(0, factory);
-    cache.clear();
+  public synchronized ColumnMappers register(ColumnMapperFactory factory) {
+    List<ColumnMapperFactory> factories = new ArrayList<>(this.factories.size() + 1);
+    factories.add(factory);
+    factories.addAll(this.factories);
+    this.factories = unmodifiableList(factories);
+    this.caches = new ResolutionCaches<>();
     return this;
   }
 
@@ -172,6 +190,7 @@ public class ColumnMappers implements JdbqConfig<ColumnMappers> {
     // fashioned way.
     // See https://bugs.openjdk.java.net/browse/JDK-8062841,
     // https://bugs.openjdk.java.net/browse/JDK-8142175
+    final ResolutionCache<Type, Optional<? extends ColumnMapper<?>>> cache = getCache();
     Optional<ColumnMapper<?>> cached = (Optional) cache.get(type);
 
     if (cached != null) {
@@ -183,9 +202,48 @@ public class ColumnMappers implements JdbqConfig<ColumnMappers> {
 
     mapper.ifPresent(m -> m.init(registry));
 
-    cache.put(type, mapper);
+    return (Optional) cache.put(type, mapper);
+  }
+
+  /**
+   * Returns an object that identifies the current column mappers of this config. The object
+   * changes whenever a factory is registered or a setting changes, so caches of values that
+   * depend on column mappers can tell when to start over.
+   *
+   * @return the current generation of this config
+   */
+  public Object getGeneration() {
+    return getCache();
+  }
+
+  /**
+   * Returns the cache for the collectors of this config's registry.
+   */
+  private ResolutionCache<Type, Optional<? extends ColumnMapper<?>>> getCache() {
+    return caches.get(registry.get(JdbqCollectors.class).getGeneration());
+  }
+
+  /**
+   * @return the number of lookups by this config and its copies that found a cached column mapper
+   *         since the cache was last started over
+   */
+  public long getCacheHitCount() {
+    return getCache().getHitCount();
+  }
 
-    return mapper;
+  /**
+   * @return the number of lookups by this config and its copies that did not find a cached column
+   *         mapper since the cache was last started over
+   */
+  public long getCacheMissCount() {
+    return getCache().getMissCount();
+  }
+
+  /**
+   * @return the number of cached column mapper lookups
+   */
+  public int getCacheSize() {
+    return getCache().size();
   }
 
   /**
@@ -202,7 +260,10 @@ public class ColumnMappers implements JdbqConfig<ColumnMappers> {
   }
 
   public void setCoalesceNullPrimitivesToDefaults(boolean coalesceNullPrimitivesToDefaults) {
-    this.coalesceNullPrimitivesToDefaults = coalesceNullPrimitivesToDefaults;
+    if (coalesceNullPrimitivesToDefaults != this.coalesceNullPrimitivesToDefaults) {
+      this.coalesceNullPrimitivesToDefaults = coalesceNullPrimitivesToDefaults;
+      this.caches = new ResolutionCaches<>();
+    }
   }
 
   @Override
@@ -30,14 +30,21 @@
  */
 package com.sigpwned.jdbq.mapper.column;
 
+import java.util.OptionalInt;
 import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Schema;
+import com.sigpwned.jdbq.internal.Schemas;
 import com.sigpwned.jdbq.mapper.row.RowMapper;
 import com.sigpwned.jdbq.statement.StatementContext;
 
 /**
- * Adapts a {@link ColumnMapper} into a {@link RowMapper} by mapping a single column.
+ * Adapts a {@link ColumnMapper} into a {@link RowMapper} by mapping a single column. A mapper for a
+ * column label resolves the label to a column number once the schema of the results is known, so
+ * rows are not searched by name.
  */
 public class SingleColumnMapper<T> implements RowMapper<T> {
+  private final ColumnMapper<T> mapper;
+  private final String columnLabel;
   private final RowMapper<T> delegate;
 
   /**
@@ -56,6 +63,8 @@ public class SingleColumnMapper<T> implements RowMapper<T> {
    * @param columnNumber the column number (0-based) to map
    */
   public SingleColumnMapper(ColumnMapper<T> mapper, int columnNumber) {
+    this.mapper = mapper;
+    this.columnLabel = null;
     this.delegate = (row, ctx) -> mapper.map(row, columnNumber, ctx);
   }
 
@@ -66,6 +75,8 @@ public class SingleColumnMapper<T> implements RowMapper<T> {
    * @param columnLabel the label of the column to map
    */
   public SingleColumnMapper(ColumnMapper<T> mapper, String columnLabel) {
+    this.mapper = mapper;
+    this.columnLabel = columnLabel;
     this.delegate = (row, ctx) -> mapper.map(row, columnLabel, ctx);
   }
 
@@ -73,4 +84,21 @@ public class SingleColumnMapper<T> implements RowMapper<T> {
   public T map(FieldValueList row, StatementContext ctx) {
     return delegate.map(row, ctx);
   }
+
+  /**
+   * Returns a mapper for the column number of this mapper's column label in the given schema. If
+   * this mapper maps a column number, or the label does not appear in the schema, then this mapper
+   * is returned, and the label is looked up in each row as usual.
+   */
+  @Override
+  public RowMapper<T> specialize(Schema schema, StatementContext ctx) {
+    if (columnLabel == null)
+      return this;
+
+    OptionalInt columnNumber = Schemas.findColumnIndex(schema, columnLabel);
+    if (!columnNumber.isPresent())
+      return this;
+
+    return new SingleColumnMapper<>(mapper, columnNumber.getAsInt());
+  }
 }
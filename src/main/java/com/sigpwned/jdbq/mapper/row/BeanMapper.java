@@ -0,0 +1,217 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.mapper.row;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Schema;
+import com.sigpwned.jdbq.mapper.MappingException;
+import com.sigpwned.jdbq.mapper.column.ColumnMapper;
+import com.sigpwned.jdbq.mapper.column.ColumnMappers;
+import com.sigpwned.jdbq.statement.StatementContext;
+
+/**
+ * Maps rows to JavaBeans. Each row is mapped to a new instance created with the bean's no-argument
+ * constructor, and each column whose name matches a writable property is mapped with the column
+ * mapper for the property's type and set on the instance. Columns without a matching property, and
+ * properties without a matching column, are ignored.
+ *
+ * <p>
+ * Properties are matched to columns once per result schema, and the bean's constructor and setters
+ * are compiled into {@link MethodHandle}s once per bean class, so mapping a row involves no
+ * reflection or name lookups.
+ *
+ * @param <T> the bean type
+ */
+public class BeanMapper<T> extends PlannedRowMapper<T> {
+  private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+  private static final MethodType SETTER_TYPE =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  /**
+   * Returns a row mapper factory that maps to the given bean type
+   *
+   * @param type the bean type
+   * @return the factory
+   */
+  public static RowMapperFactory factory(Class<?> type) {
+    return RowMapperFactory.of(type, of(type));
+  }
+
+  /**
+   * Returns a row mapper for the given bean type
+   *
+   * @param <T> the bean type
+   * @param type the bean type
+   * @return the mapper
+   * @throws MappingException if the type is not a bean with an accessible no-argument constructor
+   */
+  public static <T> RowMapper<T> of(Class<T> type) {
+    return new BeanMapper<>(type);
+  }
+
+  private final MethodHandle constructor;
+  private final List<String> names;
+  private final List<Type> types;
+  private final List<MethodHandle> setters;
+
+  protected BeanMapper(Class<T> type) {
+    super(type);
+
+    final Constructor<T> constructor;
+    try {
+      constructor = type.getDeclaredConstructor();
+    } catch (NoSuchMethodException e) {
+      throw new MappingException("Bean " + type.getName() + " has no no-argument constructor", e);
+    }
+    trySetAccessible(constructor);
+    try {
+      this.constructor = MethodHandles.lookup().unreflectConstructor(constructor)
+          .asType(CONSTRUCTOR_TYPE);
+    } catch (IllegalAccessException e) {
+      throw new MappingException("Cannot access constructor " + constructor, e);
+    }
+
+    final BeanInfo beanInfo;
+    try {
+      beanInfo = Introspector.getBeanInfo(type);
+    } catch (IntrospectionException e) {
+      throw new MappingException("Failed to introspect bean " + type.getName(), e);
+    }
+
+    this.names = new ArrayList<>();
+    this.types = new ArrayList<>();
+    this.setters = new ArrayList<>();
+    for (PropertyDescriptor property : beanInfo.getPropertyDescriptors()) {
+      Method setter = property.getWriteMethod();
+      if (setter == null)
+        continue;
+      trySetAccessible(setter);
+      try {
+        setters.add(MethodHandles.lookup().unreflect(setter).asType(SETTER_TYPE));
+      } catch (IllegalAccessException e) {
+        throw new MappingException("Cannot access method " + setter, e);
+      }
+      names.add(property.getName());
+      types.add(setter.getGenericParameterTypes()[0]);
+    }
+  }
+
+  @Override
+  protected RowMapper<T> compile(Schema schema, ColumnMappers columnMappers) {
+    final List<Integer> columns = new ArrayList<>();
+    final List<ColumnMapper<?>> mappers = new ArrayList<>();
+    final List<MethodHandle> setters = new ArrayList<>();
+    for (int i = 0; i < names.size(); i++) {
+      OptionalInt column = findColumn(schema, names.get(i));
+      if (!column.isPresent())
+        continue;
+      columns.add(column.getAsInt());
+      mappers.add(findColumnMapper(columnMappers, types.get(i), names.get(i)));
+      setters.add(this.setters.get(i));
+    }
+
+    if (columns.isEmpty())
+      throw new MappingException(
+          "Mapping bean " + getType().getName() + " did not find any matching columns");
+
+    return new Plan<>(getType(), constructor,
+        columns.stream().mapToInt(Integer::intValue).toArray(),
+        mappers.toArray(new ColumnMapper<?>[0]), setters.toArray(new MethodHandle[0]));
+  }
+
+  @Override
+  protected T mapByName(FieldValueList row, ColumnMappers columnMappers, StatementContext ctx) {
+    try {
+      Object result = null;
+      for (int i = 0; i < names.size(); i++) {
+        Optional<String> label = findColumnLabel(row, names.get(i));
+        if (!label.isPresent())
+          continue;
+        if (result == null)
+          result = (Object) constructor.invokeExact();
+        final Object value =
+            findColumnMapper(columnMappers, types.get(i), names.get(i)).map(row, label.get(), ctx);
+        setters.get(i).invokeExact(result, value);
+      }
+
+      if (result == null)
+        throw new MappingException(
+            "Mapping bean " + getType().getName() + " did not find any matching columns");
+
+      return getType().cast(result);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new MappingException("Failed to map bean " + getType().getName(), e);
+    }
+  }
+
+  /**
+   * The compiled plan for one schema. Mapping a row creates the bean and then, for each matched
+   * column, calls the column mapper and the setter.
+   */
+  private static final class Plan<T> implements RowMapper<T> {
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final int[] columns;
+    private final ColumnMapper<?>[] mappers;
+    private final MethodHandle[] setters;
+
+    public Plan(Class<T> type, MethodHandle constructor, int[] columns, ColumnMapper<?>[] mappers,
+        MethodHandle[] setters) {
+      this.type = type;
+      this.constructor = constructor;
+      this.columns = columns;
+      this.mappers = mappers;
+      this.setters = setters;
+    }
+
+    @Override
+    public T map(FieldValueList row, StatementContext ctx) {
+      try {
+        final Object result = (Object) constructor.invokeExact();
+        for (int i = 0; i < columns.length; i++) {
+          final Object value = mappers[i].map(row, columns[i], ctx);
+          setters[i].invokeExact(result, value);
+        }
+        return type.cast(result);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new MappingException("Failed to map bean " + type.getName(), e);
+      }
+    }
+  }
+}
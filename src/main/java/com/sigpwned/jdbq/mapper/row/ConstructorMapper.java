@@ -0,0 +1,269 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.mapper.row;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Schema;
+import com.sigpwned.jdbq.argument.ObjectAccessors;
+import com.sigpwned.jdbq.mapper.MappingException;
+import com.sigpwned.jdbq.mapper.column.ColumnMapper;
+import com.sigpwned.jdbq.mapper.column.ColumnMappers;
+import com.sigpwned.jdbq.statement.StatementContext;
+
+/**
+ * Maps rows to objects by passing columns to a constructor, matching constructor parameters to
+ * columns by name. Every parameter must have a matching column, which is mapped with the column
+ * mapper for the parameter's type. Columns without a matching parameter are ignored.
+ *
+ * <p>
+ * The constructor is chosen as follows:
+ * </p>
+ * <ul>
+ * <li>For a record class, its canonical constructor, with parameters named after the record
+ * components.</li>
+ * <li>Otherwise, the constructor annotated with {@link ConstructorProperties}, with parameters
+ * named by the annotation.</li>
+ * <li>Otherwise, the only public constructor, with parameters named as compiled, which requires
+ * compiling with {@code -parameters}.</li>
+ * </ul>
+ *
+ * <p>
+ * Parameters are matched to columns once per result schema, and the constructor is compiled into a
+ * {@link MethodHandle} once per class, so mapping a row involves one column mapper call per
+ * parameter and one constructor call, with no reflection or name lookups.
+ *
+ * @param <T> the mapped type
+ */
+public class ConstructorMapper<T> extends PlannedRowMapper<T> {
+  /**
+   * Returns a row mapper factory that maps to the given type
+   *
+   * @param type the mapped type
+   * @return the factory
+   */
+  public static RowMapperFactory factory(Class<?> type) {
+    return RowMapperFactory.of(type, of(type));
+  }
+
+  /**
+   * Returns a row mapper for the given type
+   *
+   * @param <T> the mapped type
+   * @param type the mapped type
+   * @return the mapper
+   * @throws MappingException if no suitable constructor can be found
+   */
+  public static <T> RowMapper<T> of(Class<T> type) {
+    return new ConstructorMapper<>(type);
+  }
+
+  private final MethodHandle constructor;
+  private final String[] names;
+  private final Type[] types;
+
+  protected ConstructorMapper(Class<T> type) {
+    super(type);
+
+    final Constructor<?> constructor;
+    if (ObjectAccessors.isRecord(type)) {
+      constructor = findCanonicalConstructor(type);
+      this.names = findRecordComponentNames(type);
+    } else {
+      constructor = findConstructor(type);
+      this.names = findParameterNames(constructor);
+    }
+    this.types = constructor.getGenericParameterTypes();
+
+    trySetAccessible(constructor);
+    try {
+      MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+      this.constructor = handle.asType(handle.type().generic()).asSpreader(Object[].class,
+          types.length);
+    } catch (IllegalAccessException e) {
+      throw new MappingException("Cannot access constructor " + constructor, e);
+    }
+  }
+
+  /**
+   * We target Java 8, so we find record components reflectively.
+   */
+  private static Constructor<?> findCanonicalConstructor(Class<?> type) {
+    try {
+      Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+      Class<?>[] parameterTypes = new Class<?>[components.length];
+      for (int i = 0; i < components.length; i++) {
+        Method getType = components[i].getClass().getMethod("getType");
+        parameterTypes[i] = (Class<?>) getType.invoke(components[i]);
+      }
+      return type.getDeclaredConstructor(parameterTypes);
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+      throw new MappingException("Failed to inspect record " + type.getName(), e);
+    }
+  }
+
+  private static String[] findRecordComponentNames(Class<?> type) {
+    try {
+      Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+      String[] result = new String[components.length];
+      for (int i = 0; i < components.length; i++) {
+        Method getName = components[i].getClass().getMethod("getName");
+        result[i] = (String) getName.invoke(components[i]);
+      }
+      return result;
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+      throw new MappingException("Failed to inspect record " + type.getName(), e);
+    }
+  }
+
+  private static Constructor<?> findConstructor(Class<?> type) {
+    for (Constructor<?> constructor : type.getDeclaredConstructors())
+      if (constructor.isAnnotationPresent(ConstructorProperties.class))
+        return constructor;
+
+    Constructor<?> result = null;
+    for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+      if (!Modifier.isPublic(constructor.getModifiers()))
+        continue;
+      if (result != null)
+        throw new MappingException("Type " + type.getName()
+            + " has multiple public constructors; annotate one with @ConstructorProperties");
+      result = constructor;
+    }
+
+    if (result == null)
+      throw new MappingException("Type " + type.getName()
+          + " has no public constructor; annotate one with @ConstructorProperties");
+
+    return result;
+  }
+
+  private static String[] findParameterNames(Constructor<?> constructor) {
+    ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+    if (properties != null) {
+      if (properties.value().length != constructor.getParameterCount())
+        throw new MappingException("@ConstructorProperties of " + constructor
+            + " does not name every parameter");
+      return properties.value();
+    }
+
+    Parameter[] parameters = constructor.getParameters();
+    String[] result = new String[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+      if (!parameters[i].isNamePresent())
+        throw new MappingException("Parameter names of " + constructor
+            + " are not available; compile with -parameters or use @ConstructorProperties");
+      result[i] = parameters[i].getName();
+    }
+    return result;
+  }
+
+  @Override
+  protected RowMapper<T> compile(Schema schema, ColumnMappers columnMappers) {
+    final int[] columns = new int[names.length];
+    final ColumnMapper<?>[] mappers = new ColumnMapper<?>[names.length];
+    final List<String> missing = new ArrayList<>();
+    for (int i = 0; i < names.length; i++) {
+      OptionalInt column = findColumn(schema, names[i]);
+      if (!column.isPresent()) {
+        missing.add(names[i]);
+        continue;
+      }
+      columns[i] = column.getAsInt();
+      mappers[i] = findColumnMapper(columnMappers, types[i], names[i]);
+    }
+
+    if (!missing.isEmpty())
+      throw new MappingException("Mapping " + getType().getName()
+          + " did not find columns for constructor parameters " + missing);
+
+    return new Plan<>(getType(), constructor, columns, mappers);
+  }
+
+  @Override
+  protected T mapByName(FieldValueList row, ColumnMappers columnMappers, StatementContext ctx) {
+    final Object[] arguments = new Object[names.length];
+    final List<String> missing = new ArrayList<>();
+    for (int i = 0; i < names.length; i++) {
+      Optional<String> label = findColumnLabel(row, names[i]);
+      if (!label.isPresent()) {
+        missing.add(names[i]);
+        continue;
+      }
+      arguments[i] =
+          findColumnMapper(columnMappers, types[i], names[i]).map(row, label.get(), ctx);
+    }
+
+    if (!missing.isEmpty())
+      throw new MappingException("Mapping " + getType().getName()
+          + " did not find columns for constructor parameters " + missing);
+
+    return construct(getType(), constructor, arguments);
+  }
+
+  private static <T> T construct(Class<T> type, MethodHandle constructor, Object[] arguments) {
+    try {
+      return type.cast((Object) constructor.invokeExact(arguments));
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new MappingException("Failed to construct " + type.getName(), e);
+    }
+  }
+
+  /**
+   * The compiled plan for one schema. Mapping a row calls the column mapper for each parameter and
+   * then the constructor.
+   */
+  private static final class Plan<T> implements RowMapper<T> {
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final int[] columns;
+    private final ColumnMapper<?>[] mappers;
+
+    public Plan(Class<T> type, MethodHandle constructor, int[] columns,
+        ColumnMapper<?>[] mappers) {
+      this.type = type;
+      this.constructor = constructor;
+      this.columns = columns;
+      this.mappers = mappers;
+    }
+
+    @Override
+    public T map(FieldValueList row, StatementContext ctx) {
+      final Object[] arguments = new Object[columns.length];
+      for (int i = 0; i < columns.length; i++)
+        arguments[i] = mappers[i].map(row, columns[i], ctx);
+      return construct(type, constructor, arguments);
+    }
+  }
+}
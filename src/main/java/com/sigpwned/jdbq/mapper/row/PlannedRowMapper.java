@@ -0,0 +1,233 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.mapper.row;
+
+import static java.util.Objects.requireNonNull;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Type;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalInt;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Schema;
+import com.sigpwned.jdbq.internal.BoundedCache;
+import com.sigpwned.jdbq.internal.Schemas;
+import com.sigpwned.jdbq.mapper.MappingException;
+import com.sigpwned.jdbq.mapper.NoSuchMapperException;
+import com.sigpwned.jdbq.mapper.column.ColumnMapper;
+import com.sigpwned.jdbq.mapper.column.ColumnMappers;
+import com.sigpwned.jdbq.statement.StatementContext;
+
+/**
+ * A row mapper that maps rows by column name, compiled once per result schema into a plan that maps
+ * rows by column index. Plans are cached per schema and column mappers, so a plan is compiled once
+ * and then reused by every result set with the same schema.
+ */
+abstract class PlannedRowMapper<T> implements RowMapper<T> {
+  /**
+   * The most plans to cache for any one mapper
+   */
+  private static final int MAXIMUM_PLANS = 64;
+
+  /**
+   * The key of a cached plan. Column mappers are compared by generation, i.e., by identity.
+   */
+  private static final class PlanKey {
+    private final Schema schema;
+    private final Object columnMappers;
+
+    public PlanKey(Schema schema, Object columnMappers) {
+      this.schema = schema;
+      this.columnMappers = columnMappers;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * schema.hashCode() + System.identityHashCode(columnMappers);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      PlanKey other = (PlanKey) obj;
+      return columnMappers == other.columnMappers && schema.equals(other.schema);
+    }
+  }
+
+  private final Class<T> type;
+  private final BoundedCache<PlanKey, RowMapper<T>> plans;
+
+  protected PlannedRowMapper(Class<T> type) {
+    this.type = requireNonNull(type);
+    this.plans = new BoundedCache<>(MAXIMUM_PLANS);
+  }
+
+  /**
+   * Maps a row without a plan, looking up each column by name in the row's own schema. Result
+   * iterators specialize mappers whenever the result schema is known, so this is only used for
+   * results without one, e.g., custom result sets, and for callers that map rows directly. It is
+   * slower than a plan, but maps the same columns, except that names are matched against columns
+   * only exactly or in snake case, e.g., {@code unitPrice} against {@code unit_price}.
+   *
+   * @throws MappingException if the row has no schema
+   */
+  @Override
+  public T map(FieldValueList row, StatementContext ctx) {
+    if (!row.hasSchema())
+      throw new MappingException(
+          "Cannot map " + getType().getName() + " from a row without a schema");
+    return mapByName(row, ctx.getConfig(ColumnMappers.class), ctx);
+  }
+
+  /**
+   * Returns the plan for the given schema, compiling it first if necessary.
+   */
+  @Override
+  public RowMapper<T> specialize(Schema schema, StatementContext ctx) {
+    final ColumnMappers columnMappers = ctx.getConfig(ColumnMappers.class);
+    final PlanKey key = new PlanKey(schema, columnMappers.getGeneration());
+    return plans.computeIfAbsent(key, k -> compile(schema, columnMappers));
+  }
+
+  /**
+   * Compiles the plan for mapping rows of the given schema.
+   *
+   * @param schema the result schema
+   * @param columnMappers the column mappers to map columns with
+   * @return a row mapper that maps rows of the given schema by column index
+   */
+  protected abstract RowMapper<T> compile(Schema schema, ColumnMappers columnMappers);
+
+  /**
+   * Maps the given row, which has a schema, by looking up each column by name.
+   *
+   * @param row the row
+   * @param columnMappers the column mappers to map columns with
+   * @param ctx the statement context
+   * @return the mapped value
+   * @see #findColumnLabel(FieldValueList, String)
+   */
+  protected abstract T mapByName(FieldValueList row, ColumnMappers columnMappers,
+      StatementContext ctx);
+
+  /**
+   * Returns the index of the column for the given name. Names are matched exactly if possible, and
+   * otherwise ignoring case and underscores, so that the column {@code unit_price} matches the
+   * name {@code unitPrice}.
+   */
+  protected static OptionalInt findColumn(Schema schema, String name) {
+    OptionalInt result = Schemas.findColumnIndex(schema, name);
+    if (result.isPresent())
+      return result;
+
+    final FieldList fields = schema.getFields();
+    if (fields == null)
+      return OptionalInt.empty();
+
+    final String normalizedName = normalize(name);
+    for (int i = 0; i < fields.size(); i++) {
+      Field field = fields.get(i);
+      if (normalize(field.getName()).equals(normalizedName))
+        return OptionalInt.of(i);
+    }
+
+    return OptionalInt.empty();
+  }
+
+  /**
+   * Returns the label of the column for the given name in the given row, which has a schema. Rows
+   * only look up columns by exact label, so the name is tried as given, and then in snake case.
+   */
+  protected static Optional<String> findColumnLabel(FieldValueList row, String name) {
+    if (hasColumn(row, name))
+      return Optional.of(name);
+
+    final String snakeCaseName = toSnakeCase(name);
+    if (!snakeCaseName.equals(name) && hasColumn(row, snakeCaseName))
+      return Optional.of(snakeCaseName);
+
+    return Optional.empty();
+  }
+
+  private static boolean hasColumn(FieldValueList row, String label) {
+    try {
+      row.get(label);
+      return true;
+    } catch (IllegalArgumentException e) {
+      // This is how rows report a label that is not in their schema.
+      return false;
+    }
+  }
+
+  private static String toSnakeCase(String name) {
+    final StringBuilder result = new StringBuilder(name.length() + 4);
+    for (int i = 0; i < name.length(); i++) {
+      char ch = name.charAt(i);
+      if (Character.isUpperCase(ch)) {
+        if (i > 0)
+          result.append('_');
+        result.append(Character.toLowerCase(ch));
+      } else {
+        result.append(ch);
+      }
+    }
+    return result.toString();
+  }
+
+  private static String normalize(String name) {
+    return name.replace("_", "").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Returns the column mapper for the given type of the given named value.
+   *
+   * @throws NoSuchMapperException if there is no column mapper for the type
+   */
+  protected ColumnMapper<?> findColumnMapper(ColumnMappers columnMappers, Type type, String name) {
+    return columnMappers.findFor(type).orElseThrow(() -> new NoSuchMapperException(
+        "No column mapper for " + type + " of " + name + " in " + getType().getName()));
+  }
+
+  /**
+   * Public members of non-public classes, e.g., private nested classes, are not accessible without
+   * this. If the runtime refuses, then we carry on and let the lookup report the problem.
+   */
+  protected static void trySetAccessible(AccessibleObject member) {
+    try {
+      member.setAccessible(true);
+    } catch (RuntimeException e) {
+      // Ignore. This is a SecurityException or, on newer runtimes, InaccessibleObjectException.
+    }
+  }
+
+  /**
+   * @return the type
+   */
+  protected Class<T> getType() {
+    return type;
+  }
+}
@@ -21,6 +21,7 @@ package com.sigpwned.jdbq.mapper.row;
 
 import java.sql.SQLException;
 import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Schema;
 import com.sigpwned.jdbq.config.ConfigRegistry;
 import com.sigpwned.jdbq.statement.StatementContext;
 
@@ -57,4 +58,18 @@ public interface RowMapper<T> {
    * @param registry A reference to the {@link ConfigRegistry} that this instance belongs to.
    */
   default void init(ConfigRegistry registry) {}
+
+  /**
+   * Returns a row mapper specialized to the given result schema, e.g., one that has resolved the
+   * column names it maps to column indexes. This method is called once per result set, before any
+   * rows are mapped, when the schema of the results is known. The returned mapper is used for every
+   * row of that result set only, so it may assume the given schema.
+   *
+   * @param schema the schema of the result set that will be mapped
+   * @param ctx the statement context
+   * @return the row mapper to use for the result set, which may be this one
+   */
+  default RowMapper<T> specialize(Schema schema, StatementContext ctx) {
+    return this;
+  }
 }
@@ -19,32 +19,49 @@
  */
 package com.sigpwned.jdbq.mapper.row;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import com.sigpwned.jdbq.collector.JdbqCollectors;
 import com.sigpwned.jdbq.config.ConfigRegistry;
 import com.sigpwned.jdbq.config.JdbqConfig;
 import com.sigpwned.jdbq.generic.GenericType;
 import com.sigpwned.jdbq.generic.GenericTypes;
 import com.sigpwned.jdbq.internal.Optionals;
+import com.sigpwned.jdbq.internal.ResolutionCache;
+import com.sigpwned.jdbq.internal.ResolutionCaches;
+import com.sigpwned.jdbq.mapper.column.ColumnMappers;
 import com.sigpwned.jdbq.statement.Query;
 
 /**
  * Configuration registry for {@link RowMapperFactory} instances.
  */
 public class RowMappers implements JdbqConfig<RowMappers> {
-  private final List<RowMapperFactory> factories = new CopyOnWriteArrayList<>();
-  private final ConcurrentHashMap<Type, Optional<RowMapper<?>>> cache = new ConcurrentHashMap<>();
+  /**
+   * The registered factories, most recent first. The list is immutable, so copies of this config
+   * share it until either one registers a factory, at which point it gets a list of its own.
+   */
+  private volatile List<RowMapperFactory> factories = emptyList();
+
+  /**
+   * The mapper found for each type. Copies of this config share the caches, so mappers found while
+   * running one statement are reused by every other statement. There is one cache for each
+   * generation of the column mappers and collectors, which mappers may use, and a copy starts new
+   * caches of its own when it registers a factory.
+   */
+  private volatile ResolutionCaches<Type, Optional<RowMapper<?>>> caches =
+      new ResolutionCaches<>();
 
   private ConfigRegistry registry;
 
   public RowMappers() {}
 
   private RowMappers(RowMappers that) {
-    factories.addAll(that.factories);
-    cache.putAll(that.cache);
+    factories = that.factories;
+    caches = that.caches;
   }
 
   @Override
@@ -103,9 +120,12 @@ public class RowMappers implements JdbqConfig<RowMappers> {
    * @param factory the row mapper factory
    * @return this
    */
-  public RowMappers register(RowMapperFactory factory) {
-    factories.add(0, factory);
-    cache.clear();
+  public synchronized RowMappers register(RowMapperFactory factory) {
+    List<RowMapperFactory> factories = new ArrayList<>(this.factories.size() + 1);
+    factories.add(factory);
+    factories.addAll(this.factories);
+    this.factories = unmodifiableList(factories);
+    this.caches = new ResolutionCaches<>();
     return this;
   }
 
@@ -150,6 +170,7 @@ public class RowMappers implements JdbqConfig<RowMappers> {
     // fashioned way.
     // See https://bugs.openjdk.java.net/browse/JDK-8062841,
     // https://bugs.openjdk.java.net/browse/JDK-8142175
+    final ResolutionCache<Type, Optional<RowMapper<?>>> cache = getCache();
     Optional<RowMapper<?>> cached = cache.get(type);
 
     if (cached != null) {
@@ -161,9 +182,39 @@ public class RowMappers implements JdbqConfig<RowMappers> {
 
     mapper.ifPresent(m -> m.init(registry));
 
-    cache.put(type, mapper);
+    return cache.put(type, mapper);
+  }
+
+  /**
+   * Returns the cache for the column mappers and collectors of this config's registry.
+   */
+  private ResolutionCache<Type, Optional<RowMapper<?>>> getCache() {
+    final Object columnMappers = registry.get(ColumnMappers.class).getGeneration();
+    final Object collectors = registry.get(JdbqCollectors.class).getGeneration();
+    return caches.get(columnMappers, collectors);
+  }
+
+  /**
+   * @return the number of lookups by this config and its copies that found a cached row mapper
+   *         since the cache was last started over
+   */
+  public long getCacheHitCount() {
+    return getCache().getHitCount();
+  }
+
+  /**
+   * @return the number of lookups by this config and its copies that did not find a cached row
+   *         mapper since the cache was last started over
+   */
+  public long getCacheMissCount() {
+    return getCache().getMissCount();
+  }
 
-    return mapper;
+  /**
+   * @return the number of cached row mapper lookups
+   */
+  public int getCacheSize() {
+    return getCache().size();
   }
 
   @Override
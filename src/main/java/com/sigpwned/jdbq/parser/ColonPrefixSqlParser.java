@@ -30,18 +30,7 @@
  */
 package com.sigpwned.jdbq.parser;
 
-import static com.sigpwned.jdbq.internal.lexer.ColonStatementLexer.COMMENT;
-import static com.sigpwned.jdbq.internal.lexer.ColonStatementLexer.DOUBLE_QUOTED_TEXT;
-import static com.sigpwned.jdbq.internal.lexer.ColonStatementLexer.ESCAPED_TEXT;
-import static com.sigpwned.jdbq.internal.lexer.ColonStatementLexer.LITERAL;
-import static com.sigpwned.jdbq.internal.lexer.ColonStatementLexer.NAMED_PARAM;
-import static com.sigpwned.jdbq.internal.lexer.ColonStatementLexer.POSITIONAL_PARAM;
-import static com.sigpwned.jdbq.internal.lexer.ColonStatementLexer.QUOTED_TEXT;
-import static org.antlr.v4.runtime.Recognizer.EOF;
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.Token;
-import com.sigpwned.jdbq.internal.antlr4.ErrorListener;
-import com.sigpwned.jdbq.internal.lexer.ColonStatementLexer;
+import com.sigpwned.jdbq.internal.lexer.SqlScanner;
 import com.sigpwned.jdbq.statement.StatementContext;
 
 /**
@@ -57,30 +46,24 @@ public class ColonPrefixSqlParser implements SqlParser {
   @Override
   public ParsedSql parse(String sql, StatementContext ctx) {
     ParsedSql.Builder parsedSql = ParsedSql.builder();
-    ColonStatementLexer lexer = new ColonStatementLexer(CharStreams.fromString(sql));
-    lexer.addErrorListener(new ErrorListener());
-    Token t = lexer.nextToken();
-    while (t.getType() != EOF) {
-      switch (t.getType()) {
-        case COMMENT:
+    SqlScanner scanner = new SqlScanner(SqlScanner.Grammar.COLON, sql);
+    while (scanner.next()) {
+      switch (scanner.getType()) {
         case LITERAL:
-        case QUOTED_TEXT:
-        case DOUBLE_QUOTED_TEXT:
-          parsedSql.append(t.getText());
+          parsedSql.append(sql, scanner.getStart(), scanner.getEnd());
           break;
         case NAMED_PARAM:
-          parsedSql.appendNamedParameter(t.getText().substring(1));
+          parsedSql.appendNamedParameter(scanner.getName());
           break;
         case POSITIONAL_PARAM:
           parsedSql.appendPositionalParameter();
           break;
         case ESCAPED_TEXT:
-          parsedSql.append(t.getText().substring(1));
+          parsedSql.append(sql, scanner.getStart() + 1, scanner.getEnd());
           break;
         default:
           break;
       }
-      t = lexer.nextToken();
     }
     return parsedSql.build();
   }
@@ -146,6 +146,19 @@ public final class ParsedSql {
             return this;
         }
 
+        /**
+         * Appends the given range of the given SQL to the SQL string.
+         *
+         * @param sql the SQL
+         * @param start the index of the first character to append
+         * @param end the index after the last character to append
+         * @return this
+         */
+        public Builder append(CharSequence sql, int start, int end) {
+            this.sql.append(sql, start, end);
+            return this;
+        }
+
         /**
          * Records a positional parameters, and appends a <code>?</code> to the
          * SQL string.
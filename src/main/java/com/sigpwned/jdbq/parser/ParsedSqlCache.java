@@ -0,0 +1,93 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.parser;
+
+import com.sigpwned.jdbq.internal.BoundedCache;
+import com.sigpwned.jdbq.statement.StatementContext;
+
+/**
+ * A bounded, concurrent cache of {@link ParsedSql} keyed by rendered SQL. Because
+ * {@link ParsedSql} is immutable, cached instances are shared freely across handles and threads.
+ * Caching assumes that the {@link SqlParser} in use produces the same result for the same SQL, as
+ * the built-in parsers do.
+ */
+public final class ParsedSqlCache {
+  public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+  private final BoundedCache<String, ParsedSql> cache;
+
+  /**
+   * @param maximumSize the maximum number of statements to cache. If zero, nothing is cached.
+   */
+  public ParsedSqlCache(int maximumSize) {
+    this.cache = new BoundedCache<>(maximumSize);
+  }
+
+  /**
+   * Returns the cached parse of the given SQL, parsing and caching it first if necessary.
+   */
+  public ParsedSql parse(SqlParser parser, String sql, StatementContext ctx) {
+    if (cache.getMaximumSize() == 0)
+      return parser.parse(sql, ctx);
+    return cache.computeIfAbsent(sql, s -> parser.parse(s, ctx));
+  }
+
+  /**
+   * Removes all cached statements.
+   */
+  public void clear() {
+    cache.clear();
+  }
+
+  /**
+   * @return the number of statements currently cached
+   */
+  public int size() {
+    return cache.size();
+  }
+
+  /**
+   * @return the maximum number of statements to cache
+   */
+  public int getMaximumSize() {
+    return cache.getMaximumSize();
+  }
+
+  /**
+   * @return the number of parses answered from the cache
+   */
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  /**
+   * @return the number of parses that required parsing
+   */
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  /**
+   * @return the number of statements evicted to keep the cache under its maximum size
+   */
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+}
@@ -20,24 +20,110 @@
 package com.sigpwned.jdbq.result;
 
 import static java.util.Objects.requireNonNull;
+import java.util.Iterator;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import com.google.cloud.bigquery.FieldValueList;
 import com.sigpwned.jdbq.mapper.row.RowMapper;
 import com.sigpwned.jdbq.statement.StatementContext;
 
+/**
+ * A {@link ResultIterable} over the rows of one result set. It may be traversed only once: the
+ * first call to {@link #iterator()}, {@link #iterator(int)}, or {@link #count()}, or to a method
+ * built on them, produces the result set, and any later call throws {@link IllegalStateException}.
+ * Producing the result set usually executes the statement, and consuming it closes the statement
+ * context, so a second traversal would either run and bill the statement again or run it on a
+ * closed context.
+ */
 public class FieldValueListsResultIterable<T> implements ResultIterable<T> {
-  private final ResultSet results;
+  private final Supplier<ResultSet> results;
   private final RowMapper<T> mapper;
   private final StatementContext ctx;
+  private final AtomicBoolean traversed;
 
   public FieldValueListsResultIterable(ResultSet results, RowMapper<T> mapper,
       StatementContext ctx) {
+    this(singleton(requireNonNull(results)), mapper, ctx);
+  }
+
+  /**
+   * Creates an iterable over the result set produced by the given supplier. The supplier is not
+   * called, and typically the statement is not executed, until an iterator is requested, and it is
+   * called at most once.
+   */
+  public FieldValueListsResultIterable(Supplier<ResultSet> results, RowMapper<T> mapper,
+      StatementContext ctx) {
     this.results = requireNonNull(results);
     this.mapper = requireNonNull(mapper);
     this.ctx = requireNonNull(ctx);
+    this.traversed = new AtomicBoolean(false);
   }
 
   @Override
   public ResultIterator<T> iterator() {
-    return new FieldValueListsResultIterator<>(getResults().iterator(), getMapper(), getContext());
+    return new FieldValueListsResultIterator<>(produce(OptionalLong.empty()), getMapper(),
+        getContext());
+  }
+
+  /**
+   * Passes the hint to the statement through its context while the result set is produced, so the
+   * statement can fetch no more rows than required.
+   */
+  @Override
+  public ResultIterator<T> iterator(int maxRows) {
+    return new FieldValueListsResultIterator<>(produce(OptionalLong.of(maxRows)), getMapper(),
+        getContext());
+  }
+
+  /**
+   * Counts the rows without mapping them. The result set is produced with a hint of zero rows, so
+   * the statement fetches only the result metadata, which includes the total row count. If the
+   * result set cannot report its total row count, then its rows are counted instead.
+   */
+  @Override
+  public long count() {
+    final ResultSet resultSet = produce(OptionalLong.of(0L));
+
+    try {
+      OptionalLong totalRows = resultSet.getTotalRows();
+      if (totalRows.isPresent())
+        return totalRows.getAsLong();
+
+      long count = 0L;
+      for (Iterator<FieldValueList> iterator = resultSet.iterator(); iterator.hasNext();) {
+        iterator.next();
+        count++;
+      }
+      return count;
+    } finally {
+      try {
+        resultSet.close();
+      } finally {
+        getContext().close();
+      }
+    }
+  }
+
+  /**
+   * Produces the result set with the given hint in effect.
+   *
+   * @throws IllegalStateException if this iterable has already been traversed
+   */
+  private ResultSet produce(OptionalLong maxRowsHint) {
+    if (!traversed.compareAndSet(false, true))
+      throw new IllegalStateException("ResultIterable may only be traversed once");
+
+    getContext().setMaxRowsHint(maxRowsHint);
+    try {
+      return getResults().get();
+    } finally {
+      getContext().setMaxRowsHint(OptionalLong.empty());
+    }
+  }
+
+  private static Supplier<ResultSet> singleton(ResultSet results) {
+    return () -> results;
   }
 
   /**
@@ -50,7 +136,7 @@ public class FieldValueListsResultIterable<T> implements ResultIterable<T> {
   /**
    * @return the results
    */
-  private ResultSet getResults() {
+  private Supplier<ResultSet> getResults() {
     return results;
   }
 
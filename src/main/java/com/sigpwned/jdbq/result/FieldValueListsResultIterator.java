@@ -21,25 +21,53 @@ package com.sigpwned.jdbq.result;
 
 import static java.util.Objects.requireNonNull;
 import java.util.Iterator;
+import java.util.Optional;
 import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Schema;
 import com.sigpwned.jdbq.mapper.row.RowMapper;
 import com.sigpwned.jdbq.statement.StatementContext;
 
 public class FieldValueListsResultIterator<T> implements ResultIterator<T> {
+  private final ResultSet results;
   private final Iterator<FieldValueList> delegate;
   private final RowMapper<T> mapper;
   private final StatementContext ctx;
+  private boolean exhausted;
 
   public FieldValueListsResultIterator(Iterator<FieldValueList> delegate, RowMapper<T> mapper,
       StatementContext ctx) {
+    this.results = null;
     this.delegate = requireNonNull(delegate);
     this.mapper = requireNonNull(mapper);
     this.ctx = requireNonNull(ctx);
   }
 
+  /**
+   * Creates an iterator over the given result set, which is closed when this iterator is closed. If
+   * the schema of the result set is known, then the mapper is first specialized to it.
+   */
+  public FieldValueListsResultIterator(ResultSet results, RowMapper<T> mapper,
+      StatementContext ctx) {
+    this.results = requireNonNull(results);
+    this.ctx = requireNonNull(ctx);
+    this.mapper = specialize(requireNonNull(mapper), results, ctx);
+    this.delegate = requireNonNull(results.iterator());
+  }
+
+  private static <T> RowMapper<T> specialize(RowMapper<T> mapper, ResultSet results,
+      StatementContext ctx) {
+    final Optional<Schema> schema = results.getSchema();
+    if (!schema.isPresent())
+      return mapper;
+    return requireNonNull(mapper.specialize(schema.get(), ctx));
+  }
+
   @Override
   public boolean hasNext() {
-    return getDelegate().hasNext();
+    boolean result = getDelegate().hasNext();
+    if (!result)
+      exhausted = true;
+    return result;
   }
 
   @Override
@@ -47,9 +75,21 @@ public class FieldValueListsResultIterator<T> implements ResultIterator<T> {
     return getMapper().map(getDelegate().next(), getContext());
   }
 
+  /**
+   * Closes the underlying result set, which aborts any page fetching in progress, and then the
+   * statement context. If the results were not consumed in full and the statement's job is not
+   * done, then the statement is cancelled first, which cancels its job.
+   */
   @Override
   public void close() {
-    getContext().close();
+    try {
+      if (results != null)
+        results.close();
+      if (!exhausted && !getContext().isJobDone())
+        getContext().cancel();
+    } finally {
+      getContext().close();
+    }
   }
 
   /**
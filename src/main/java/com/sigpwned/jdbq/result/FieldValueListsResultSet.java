@@ -19,19 +19,106 @@
  */
 package com.sigpwned.jdbq.result;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
 import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Schema;
+import com.google.cloud.bigquery.TableResult;
 
 public class FieldValueListsResultSet implements ResultSet {
   private final Iterable<FieldValueList> values;
+  private final TableResult result;
+  private final int prefetchPages;
+  private final ExecutorService prefetchExecutor;
+  private final List<TableResultIterator> iterators;
 
   public FieldValueListsResultSet(Iterable<FieldValueList> values) {
     this.values = values;
+    this.result = null;
+    this.prefetchPages = 0;
+    this.prefetchExecutor = null;
+    this.iterators = null;
+  }
+
+  /**
+   * Creates a result set over the rows of every page of the given results, starting with the given
+   * page, e.g., the first page returned inline by a stateless query, without fetching it again.
+   * Subsequent pages are fetched as the rows of the previous page are consumed.
+   */
+  public FieldValueListsResultSet(TableResult result) {
+    this(result, 0, null);
+  }
+
+  /**
+   * Creates a result set over the rows of every page of the given results, starting with the given
+   * page. If prefetchPages is positive, then each iterator fetches up to that many pages ahead in
+   * the background on the given executor while the rows of the current page are consumed.
+   */
+  public FieldValueListsResultSet(TableResult result, int prefetchPages,
+      ExecutorService prefetchExecutor) {
+    if (prefetchPages < 0)
+      throw new IllegalArgumentException("prefetchPages must not be negative");
+    if (prefetchPages > 0 && prefetchExecutor == null)
+      throw new NullPointerException("prefetchExecutor");
+    this.values = null;
+    this.result = result;
+    this.prefetchPages = prefetchPages;
+    this.prefetchExecutor = prefetchExecutor;
+    this.iterators = new ArrayList<>(1);
   }
 
   @Override
   public Iterator<FieldValueList> iterator() {
-    return getValues().iterator();
+    if (result == null)
+      return getValues().iterator();
+
+    TableResultIterator iterator = new TableResultIterator(result, prefetchPages, prefetchExecutor);
+    synchronized (iterators) {
+      iterators.add(iterator);
+    }
+
+    return iterator;
+  }
+
+  /**
+   * Returns the total number of rows reported by BigQuery alongside the first page of results, if
+   * this result set was created from a {@link TableResult}.
+   */
+  @Override
+  public OptionalLong getTotalRows() {
+    if (result == null)
+      return OptionalLong.empty();
+    return OptionalLong.of(result.getTotalRows());
+  }
+
+  /**
+   * Returns the schema reported by BigQuery alongside the first page of results, if this result set
+   * was created from a {@link TableResult}.
+   */
+  @Override
+  public Optional<Schema> getSchema() {
+    if (result == null)
+      return Optional.empty();
+    return Optional.ofNullable(result.getSchema());
+  }
+
+  /**
+   * Stops any background page fetching and releases buffered pages.
+   */
+  @Override
+  public void close() {
+    if (iterators == null)
+      return;
+
+    synchronized (iterators) {
+      for (TableResultIterator iterator : iterators)
+        iterator.close();
+      iterators.clear();
+    }
   }
 
   /**
@@ -47,12 +47,21 @@ import com.sigpwned.jdbq.statement.StatementContext;
  * An {@link Iterable} of values, usually mapped from a {@link java.sql.ResultSet}. Generally,
  * ResultIterables may only be traversed once.
  *
+ * <p>
+ * ResultIterables returned by queries are lazy: the statement runs when an iterator is requested,
+ * not when the iterable is created. They may be traversed only once, so call exactly one of
+ * {@link #iterator()}, or a method built on it, e.g., {@link #stream()}, {@link #list()},
+ * {@link #one()}, or {@link #count()}, per iterable. Later calls throw
+ * {@link IllegalStateException} rather than run and bill the query again.
+ *
  * @param <T> iterable element type
  */
 @FunctionalInterface
 public interface ResultIterable<T> extends Iterable<T> {
   /**
-   * Returns a ResultIterable backed by the given result set supplier, mapper, and context.
+   * Returns a ResultIterable backed by the given result set supplier, mapper, and context. The
+   * supplier is called, and typically the statement is executed, when the iterable is first
+   * traversed. The iterable may be traversed only once.
    *
    * @param supplier result set supplier
    * @param mapper row mapper
@@ -62,7 +71,7 @@ public interface ResultIterable<T> extends Iterable<T> {
    */
   static <T> ResultIterable<T> of(Supplier<ResultSet> supplier, RowMapper<T> mapper,
       StatementContext ctx) {
-    return new FieldValueListsResultIterable<>(supplier.get(), mapper, ctx);
+    return new FieldValueListsResultIterable<>(supplier, mapper, ctx);
   }
 
   /**
@@ -85,6 +94,18 @@ public interface ResultIterable<T> extends Iterable<T> {
   @Override
   ResultIterator<T> iterator();
 
+  /**
+   * Stream the rows of the result set out with an {@code Iterator}, promising to read at most the
+   * given number of rows. Implementations may use the hint to fetch fewer rows, so rows beyond the
+   * hint may never be returned. The {@code Iterator} must be closed to release database resources.
+   *
+   * @param maxRows the maximum number of rows the caller will read
+   * @return the results as a streaming Iterator
+   */
+  default ResultIterator<T> iterator(int maxRows) {
+    return iterator();
+  }
+
   /**
    * Returns a {@code ResultIterable<U>} derived from this {@code ResultIterable<T>}, by
    * transforming elements using the given mapper function.
@@ -94,10 +115,25 @@ public interface ResultIterable<T> extends Iterable<T> {
    * @return the new ResultIterable
    */
   default <R> ResultIterable<R> map(Function<? super T, ? extends R> mapper) {
-    return () -> new ResultIteratorDelegate<T, R>(iterator()) {
+    final ResultIterable<T> delegate = this;
+    return new ResultIterable<R>() {
       @Override
-      public R next() {
-        return mapper.apply(getDelegate().next());
+      public ResultIterator<R> iterator() {
+        return map(delegate.iterator());
+      }
+
+      @Override
+      public ResultIterator<R> iterator(int maxRows) {
+        return map(delegate.iterator(maxRows));
+      }
+
+      private ResultIterator<R> map(ResultIterator<T> iterator) {
+        return new ResultIteratorDelegate<T, R>(iterator) {
+          @Override
+          public R next() {
+            return mapper.apply(getDelegate().next());
+          }
+        };
       }
     };
   }
@@ -137,6 +173,24 @@ public interface ResultIterable<T> extends Iterable<T> {
     }
   }
 
+  /**
+   * Returns the number of rows in the result set. The default implementation iterates and counts
+   * the rows; implementations backed by BigQuery results answer from the result metadata instead,
+   * without transferring or mapping any rows.
+   *
+   * @return the number of rows in the result set
+   */
+  default long count() {
+    try (ResultIterator<T> iter = iterator()) {
+      long count = 0;
+      while (iter.hasNext()) {
+        iter.next();
+        count++;
+      }
+      return count;
+    }
+  }
+
   /**
    * Returns the only row in the result set. Returns {@code null} if the row itself is {@code null}.
    * 
@@ -144,7 +198,7 @@ public interface ResultIterable<T> extends Iterable<T> {
    * @return the only row in the result set.
    */
   default T one() {
-    try (ResultIterator<T> iter = iterator()) {
+    try (ResultIterator<T> iter = iterator(2)) {
       if (!iter.hasNext()) {
         throw new IllegalStateException("Expected one element, but found none");
       }
@@ -167,7 +221,7 @@ public interface ResultIterable<T> extends Iterable<T> {
    * @return the only row in the result set, if any.
    */
   default Optional<T> findOne() {
-    try (ResultIterator<T> iter = iterator()) {
+    try (ResultIterator<T> iter = iterator(2)) {
       if (!iter.hasNext()) {
         return Optional.empty();
       }
@@ -202,7 +256,7 @@ public interface ResultIterable<T> extends Iterable<T> {
    * @return the first row in the result set.
    */
   default T first() {
-    try (ResultIterator<T> iter = iterator()) {
+    try (ResultIterator<T> iter = iterator(1)) {
       if (!iter.hasNext()) {
         throw new IllegalStateException("Expected at least one element, but found none");
       }
@@ -218,7 +272,7 @@ public interface ResultIterable<T> extends Iterable<T> {
    * @return the first row in the result set, if present.
    */
   default Optional<T> findFirst() {
-    try (ResultIterator<T> iter = iterator()) {
+    try (ResultIterator<T> iter = iterator(1)) {
       return iter.hasNext() ? Optional.ofNullable(iter.next()) : Optional.empty();
     }
   }
@@ -20,9 +20,30 @@
 package com.sigpwned.jdbq.result;
 
 import java.io.Closeable;
+import java.util.Optional;
+import java.util.OptionalLong;
 import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.Schema;
 
 @FunctionalInterface
 public interface ResultSet extends Iterable<FieldValueList>, Closeable {
+  /**
+   * Returns the total number of rows in the result set, if known without iterating the rows.
+   *
+   * @return the total number of rows, if known
+   */
+  default OptionalLong getTotalRows() {
+    return OptionalLong.empty();
+  }
+
+  /**
+   * Returns the schema of the rows in the result set, if known without iterating the rows.
+   *
+   * @return the schema of the rows, if known
+   */
+  default Optional<Schema> getSchema() {
+    return Optional.empty();
+  }
+
   default void close() {};
 }
@@ -0,0 +1,190 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.result;
+
+import static java.util.Objects.requireNonNull;
+import java.io.Closeable;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.TableResult;
+
+/**
+ * Iterates the rows of every page of a {@link TableResult}. With a positive prefetch depth, a
+ * background task fetches up to that many pages ahead of the consumer into a bounded queue, so that
+ * mapping the rows of the current page overlaps with downloading the next ones. Closing the
+ * iterator stops the background task and releases any pages it has buffered.
+ */
+class TableResultIterator implements Iterator<FieldValueList>, Closeable {
+  /**
+   * Marks the end of the pages in the queue
+   */
+  private static final Object END = new Object();
+
+  /**
+   * Carries an exception thrown by the background task to the consumer
+   */
+  private static final class Failure {
+    private final RuntimeException exception;
+
+    public Failure(RuntimeException exception) {
+      this.exception = exception;
+    }
+  }
+
+  private final BlockingQueue<Object> pages;
+  private final Future<?> prefetcher;
+  // Written by close(), which may run on another thread
+  private volatile TableResult page;
+  private volatile Iterator<FieldValueList> rows;
+  private boolean exhausted;
+  private volatile boolean closed;
+
+  public TableResultIterator(TableResult firstPage) {
+    this(firstPage, 0, null);
+  }
+
+  public TableResultIterator(TableResult firstPage, int prefetchPages,
+      ExecutorService prefetchExecutor) {
+    if (prefetchPages < 0)
+      throw new IllegalArgumentException("prefetchPages must not be negative");
+    this.page = requireNonNull(firstPage);
+    this.rows = firstPage.getValues().iterator();
+    if (prefetchPages > 0 && firstPage.hasNextPage()) {
+      this.pages = new ArrayBlockingQueue<>(prefetchPages);
+      this.prefetcher = requireNonNull(prefetchExecutor).submit(() -> prefetch(firstPage));
+    } else {
+      this.pages = null;
+      this.prefetcher = null;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!rows.hasNext()) {
+      TableResult nextPage = nextPage();
+      if (nextPage == null)
+        return false;
+      rows = nextPage.getValues().iterator();
+    }
+    return true;
+  }
+
+  @Override
+  public FieldValueList next() {
+    if (!hasNext())
+      throw new NoSuchElementException();
+    return rows.next();
+  }
+
+  /**
+   * Stops the background task and releases buffered pages. This may be called from another thread,
+   * e.g., when the statement is cancelled, so a consumer blocked waiting for the next page is woken
+   * with the end marker, and sees no more rows.
+   */
+  @Override
+  public void close() {
+    if (closed)
+      return;
+    closed = true;
+    rows = Collections.emptyIterator();
+    page = null;
+    if (prefetcher != null) {
+      prefetcher.cancel(true);
+      // The background task may have put one last page after we cleared the queue, so clear it
+      // again until the end marker fits.
+      do {
+        pages.clear();
+      } while (!pages.offer(END));
+    }
+  }
+
+  /**
+   * Returns the next page of results, or {@code null} if there are no more pages.
+   */
+  private TableResult nextPage() {
+    if (closed || exhausted)
+      return null;
+
+    if (pages == null) {
+      TableResult result = page.hasNextPage() ? page.getNextPage() : null;
+      if (result == null)
+        exhausted = true;
+      page = result;
+      return result;
+    }
+
+    Object result;
+    try {
+      result = pages.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UncheckedIOException(new InterruptedIOException());
+    }
+
+    if (result == END || closed) {
+      exhausted = true;
+      return null;
+    }
+
+    if (result instanceof Failure) {
+      exhausted = true;
+      throw ((Failure) result).exception;
+    }
+
+    return (TableResult) result;
+  }
+
+  /**
+   * Runs in the background, fetching pages after the given page until there are no more pages or
+   * this iterator is closed.
+   */
+  private void prefetch(TableResult firstPage) {
+    try {
+      TableResult current = firstPage;
+      while (current.hasNextPage()) {
+        current = current.getNextPage();
+        if (current == null)
+          break;
+        if (closed)
+          return;
+        pages.put(current);
+      }
+      if (!closed)
+        pages.put(END);
+    } catch (InterruptedException e) {
+      // We've been closed. We're done.
+    } catch (RuntimeException e) {
+      try {
+        if (!closed)
+          pages.put(new Failure(e));
+      } catch (InterruptedException e2) {
+        // We've been closed. We're done.
+      }
+    }
+  }
+}
@@ -20,14 +20,18 @@
 package com.sigpwned.jdbq.statement;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 public class ArgumentBinding {
   protected Map<Integer, Argument> positionals;
   protected Map<String, Argument> named;
+  protected List<NamedArgumentFinder> namedArgumentFinders;
 
   public ArgumentBinding() {
     // Intentially leave maps empty
@@ -71,7 +75,8 @@ public class ArgumentBinding {
   }
 
   public boolean isNamed() {
-    return named != null && !named.isEmpty();
+    return (named != null && !named.isEmpty())
+        || (namedArgumentFinders != null && !namedArgumentFinders.isEmpty());
   }
 
   /**
@@ -107,12 +112,85 @@ public class ArgumentBinding {
         .orElseGet(Collections::emptyMap);
   }
 
+  /**
+   * Bind named parameters on demand from the given finder. Explicitly-bound named arguments take
+   * precedence over finders, and earlier finders take precedence over later ones.
+   * 
+   * @param finder the finder to consult for named arguments
+   */
+  public void addNamedArgumentFinder(NamedArgumentFinder finder) {
+    if (isPositional())
+      throw new IllegalStateException("Cannot add named argument finder to positional binding");
+    if (finder == null)
+      throw new NullPointerException();
+    if (namedArgumentFinders == null)
+      namedArgumentFinders = new ArrayList<>();
+    namedArgumentFinders.add(finder);
+  }
+
+  public List<NamedArgumentFinder> getNamedArgumentFinders() {
+    return Optional.ofNullable(namedArgumentFinders).map(Collections::unmodifiableList)
+        .orElseGet(Collections::emptyList);
+  }
+
+  /**
+   * Returns the named argument with the given name, either bound explicitly or supplied by a
+   * finder, or null if there is no such argument. Finders are only consulted for names that were
+   * not bound explicitly.
+   * 
+   * @param name the argument name
+   * @return the argument, or null if there is no such argument
+   */
+  public Argument findNamed(String name) {
+    if (named != null) {
+      Argument result = named.get(name);
+      if (result != null)
+        return result;
+    }
+    if (namedArgumentFinders != null) {
+      for (NamedArgumentFinder finder : namedArgumentFinders) {
+        Argument result = finder.find(name);
+        if (result != null)
+          return result;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns all named arguments, both bound explicitly and supplied by finders. This reads every
+   * value every finder can supply, so prefer {@link #findNamed(String)} when the names of the
+   * needed arguments are known.
+   * 
+   * @return all named arguments
+   */
+  public Map<String, Argument> resolveNamed() {
+    if (!isNamed())
+      throw new IllegalStateException("not named");
+    if (namedArgumentFinders == null || namedArgumentFinders.isEmpty())
+      return getNamed();
+    Map<String, Argument> result = new LinkedHashMap<>();
+    for (NamedArgumentFinder finder : namedArgumentFinders) {
+      for (String name : finder.getNames()) {
+        if (result.containsKey(name) || (named != null && named.containsKey(name)))
+          continue;
+        Argument argument = finder.find(name);
+        if (argument != null)
+          result.put(name, argument);
+      }
+    }
+    if (named != null)
+      result.putAll(named);
+    return Collections.unmodifiableMap(result);
+  }
+
   /**
    * Remove all bindings from this Binding.
    */
   public void clear() {
     positionals = null;
     named = null;
+    namedArgumentFinders = null;
   }
 
   /**
@@ -121,11 +199,13 @@ public class ArgumentBinding {
    * @return True if there are no bindings.
    */
   public boolean isEmpty() {
-    return (positionals == null || positionals.isEmpty()) && (named == null || named.isEmpty());
+    return (positionals == null || positionals.isEmpty()) && (named == null || named.isEmpty())
+        && (namedArgumentFinders == null || namedArgumentFinders.isEmpty());
   }
 
   @Override
   public String toString() {
-    return "Binding [positionals=" + positionals + ", named=" + named + "]";
+    return "Binding [positionals=" + positionals + ", named=" + named + ", namedArgumentFinders="
+        + namedArgumentFinders + "]";
   }
 }
@@ -0,0 +1,47 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+/**
+ * Helpers for prefixed argument names like <code>p.name</code>.
+ */
+final class ArgumentNames {
+  private ArgumentNames() {}
+
+  /**
+   * @return the given name qualified by the given prefix, or the name itself if there is no prefix
+   */
+  public static String qualify(String prefix, String name) {
+    return prefix != null ? prefix + "." + name : name;
+  }
+
+  /**
+   * @return the given name without the given prefix, the name itself if there is no prefix, or
+   *         null if the name does not have the prefix
+   */
+  public static String unqualify(String prefix, String name) {
+    if (prefix == null)
+      return name;
+    int length = prefix.length();
+    if (name.length() > length + 1 && name.startsWith(prefix) && name.charAt(length) == '.')
+      return name.substring(length + 1);
+    return null;
+  }
+}
@@ -23,14 +23,19 @@ import static java.util.Objects.requireNonNull;
 import java.io.Closeable;
 import java.io.IOException;
 import com.sigpwned.jdbq.Handle;
+import com.sigpwned.jdbq.config.ConfigRegistry;
 
 public abstract class BaseStatement<This extends BaseStatement<This>> implements Closeable {
   private final Handle handle;
   private final StatementContext context;
 
   BaseStatement(Handle handle) {
+    this(handle, handle.getConfig());
+  }
+
+  BaseStatement(Handle handle, ConfigRegistry config) {
     this.handle = requireNonNull(handle);
-    this.context = new StatementContext(handle.getConfig().createCopy());
+    this.context = new StatementContext(config.createCopy());
   }
 
   public Handle getHandle() {
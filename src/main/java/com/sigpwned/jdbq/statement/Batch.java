@@ -0,0 +1,285 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobStatistics;
+import com.google.cloud.bigquery.JobStatistics.ScriptStatistics;
+import com.google.cloud.bigquery.JobStatistics.ScriptStatistics.ScriptStackFrame;
+import com.google.cloud.bigquery.QueryJobConfiguration;
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.sigpwned.jdbq.Handle;
+import com.sigpwned.jdbq.parser.ParsedParameters;
+import com.sigpwned.jdbq.parser.ParsedSql;
+import com.sigpwned.jdbq.result.UnableToProduceResultException;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+import com.sigpwned.jdbq.statement.exception.UnableToExecuteStatementException;
+
+/**
+ * Executes several unrelated updates as one BigQuery script job, so that they cost one job round
+ * trip instead of one each. Each update is templated, parsed, and bound as usual, and its
+ * parameters are renamed with a per-statement prefix, e.g., <code>@s0_name</code>, so that
+ * parameters with the same name in different updates do not collide.
+ *
+ * <pre>
+ * long[] counts = handle.createBatch()
+ *     .add(handle.createUpdate("DELETE FROM a WHERE id=:id").bind("id", 1L))
+ *     .add(handle.createUpdate("UPDATE b SET n=n+1 WHERE id=:id").bind("id", 2L))
+ *     .execute();
+ * </pre>
+ *
+ * <p>
+ * BigQuery runs each statement of a script as a child job, so the count of rows modified by each
+ * update is read from the child jobs once the script completes. The statements run in order, and a
+ * failed statement fails the whole script.
+ * </p>
+ *
+ * @see Handle#createBatch()
+ */
+public class Batch extends SqlStatement<Batch> {
+  private final List<SqlStatement<?>> parts;
+
+  public Batch(Handle handle) {
+    super(handle, "");
+    this.parts = new ArrayList<>();
+  }
+
+  /**
+   * Adds the given update to this batch. The update should not be executed on its own.
+   *
+   * @param update the update
+   * @return this batch
+   */
+  public Batch add(Update update) {
+    parts.add(update);
+    return this;
+  }
+
+  /**
+   * Adds the given SQL to this batch as an update with no arguments.
+   *
+   * @param sql the update SQL
+   * @return this batch
+   */
+  public Batch add(String sql) {
+    return add(getHandle().createUpdate(sql));
+  }
+
+  /**
+   * @return the number of updates in this batch
+   */
+  public int size() {
+    return parts.size();
+  }
+
+  /**
+   * Executes the updates in this batch as one script job.
+   *
+   * @return the number of rows modified by each update, in the order they were added
+   */
+  public long[] execute() {
+    if (parts.isEmpty())
+      return new long[0];
+    return finish(internalExecute());
+  }
+
+  /**
+   * Executes the updates in this batch as one script job asynchronously.
+   *
+   * @return a future of the number of rows modified by each update, in the order they were added
+   */
+  public CompletableFuture<long[]> executeAsync() {
+    if (parts.isEmpty())
+      return CompletableFuture.completedFuture(new long[0]);
+    return internalExecuteAsync(this::finish);
+  }
+
+  /**
+   * Prepares each update in turn, and combines their SQL and parameters into one script.
+   */
+  @Override
+  ParsedSql prepareSql() {
+    final StatementContext ctx = getContext();
+
+    ctx.getArgumentBinding().clear();
+
+    StringBuilder script = new StringBuilder();
+    for (int i = 0; i < parts.size(); i++) {
+      QueryJobConfiguration part = parts.get(i).createJobConfiguration();
+      appendScriptStatement(script, "s" + i + "_", part.getQuery(),
+          part.getPositionalParameters(), part.getNamedParameters(), ctx.getArgumentBinding());
+    }
+
+    String sql = script.toString();
+    ParsedSql result = ParsedSql.of(sql, ParsedParameters.named(Collections.emptyList()));
+    ctx.setRawSql(sql);
+    ctx.setRenderedSql(sql);
+    ctx.setParsedSql(result);
+
+    return result;
+  }
+
+  /**
+   * Appends the given statement to the given script, with every parameter renamed with the given
+   * prefix, and binds the renamed parameters to the given binding. Positional parameters are named
+   * by position, e.g., <code>@s0_0</code>. System variables like <code>@@script.job_id</code> are
+   * left alone.
+   */
+  static void appendScriptStatement(StringBuilder script, String prefix, String sql,
+      List<QueryParameterValue> positionalParameters,
+      Map<String, QueryParameterValue> namedParameters, ArgumentBinding binding) {
+    final String masked = BatchSql.mask(sql);
+
+    int end = masked.length();
+    while (end > 0 && (Character.isWhitespace(masked.charAt(end - 1))
+        || masked.charAt(end - 1) == ';'))
+      end = end - 1;
+    if (masked.lastIndexOf(';', end - 1) != -1)
+      throw new UnableToCreateStatementException(
+          "Batches support one statement per update: " + sql);
+
+    int position = 0;
+    int start = 0;
+    for (int i = 0; i < end; i++) {
+      char ch = masked.charAt(i);
+      if (ch == '?') {
+        if (position >= positionalParameters.size())
+          throw new UnableToCreateStatementException("No parameter for position " + position);
+        String name = prefix + position;
+        script.append(sql, start, i).append('@').append(name);
+        binding.addNamed(name, QueryParameterValue.class, positionalParameters.get(position));
+        position = position + 1;
+        start = i + 1;
+      } else if (ch == '@' && i + 1 < end && masked.charAt(i + 1) == '@') {
+        i = i + 1;
+      } else if (ch == '@') {
+        int nameEnd = i + 1;
+        while (nameEnd < end && (Character.isLetterOrDigit(masked.charAt(nameEnd))
+            || masked.charAt(nameEnd) == '_'))
+          nameEnd = nameEnd + 1;
+        String original = sql.substring(i + 1, nameEnd);
+        QueryParameterValue value = namedParameters.get(original);
+        if (value != null) {
+          String name = prefix + original;
+          script.append(sql, start, i).append('@').append(name);
+          binding.addNamed(name, QueryParameterValue.class, value);
+          start = nameEnd;
+        }
+        i = nameEnd - 1;
+      }
+    }
+    script.append(sql, start, end).append(";\n");
+  }
+
+  /**
+   * Completes the lifecycle of each update, whose statement was prepared as part of the given
+   * script job, and returns the number of rows each update modified.
+   */
+  private long[] finish(Job job) {
+    for (SqlStatement<?> part : parts)
+      part.afterExecution();
+    return getUpdateCounts(job);
+  }
+
+  /**
+   * Reads the number of rows modified by each update from the child jobs of the given script job.
+   */
+  private long[] getUpdateCounts(Job job) {
+    final StatementContext ctx = getContext();
+
+    List<Job> children = new ArrayList<>(parts.size());
+    try {
+      for (Job child : getHandle().getClient()
+          .listJobs(BigQuery.JobListOption.parentJobId(job.getJobId().getJob())).iterateAll())
+        children.add(child);
+    } catch (BigQueryException e) {
+      throw new UnableToExecuteStatementException(e, ctx);
+    }
+    if (children.size() != parts.size())
+      throw new UnableToProduceResultException(
+          "Expected " + parts.size() + " child jobs, got " + children.size(), ctx);
+
+    // Child jobs are listed newest first, and jobs created in the same millisecond are listed in
+    // no particular order, so put them back in statement order by where each statement starts in
+    // the script. Failing that, use the ordinal at the end of each child job id.
+    final Map<Job, Long> positions = new IdentityHashMap<>();
+    for (Job child : children)
+      positions.put(child, getStatementPosition(child));
+    if (positions.containsValue(null)) {
+      for (Job child : children)
+        positions.put(child, getJobOrdinal(child));
+      if (positions.containsValue(null))
+        throw new UnableToProduceResultException(
+            "Cannot tell which statement each child job ran", ctx);
+    }
+    children.sort(Comparator.comparing(positions::get));
+
+    long[] result = new long[children.size()];
+    for (int i = 0; i < result.length; i++)
+      result[i] = Update.getUpdateCount(children.get(i));
+
+    return result;
+  }
+
+  /**
+   * Returns where the statement the given child job ran starts in its script, as the start line in
+   * the high 32 bits and the start column in the low 32 bits, or null if the child job has no
+   * script statistics.
+   */
+  private static Long getStatementPosition(Job child) {
+    JobStatistics statistics = child.getStatistics();
+    ScriptStatistics script = statistics != null ? statistics.getScriptStatistics() : null;
+    List<ScriptStackFrame> frames = script != null ? script.getStackFrames() : null;
+    if (frames == null || frames.isEmpty())
+      return null;
+
+    ScriptStackFrame frame = frames.get(0);
+    if (frame.getStartLine() == null || frame.getStartColumn() == null)
+      return null;
+
+    return ((long) frame.getStartLine() << 32) | frame.getStartColumn();
+  }
+
+  /**
+   * Returns the ordinal BigQuery appends to the id of the given child job, e.g., 2 for
+   * <code>script_job_0123abcd_2</code>, or null if the id has no ordinal.
+   */
+  private static Long getJobOrdinal(Job child) {
+    String id = child.getJobId() != null ? child.getJobId().getJob() : null;
+    int separator = id != null ? id.lastIndexOf('_') : -1;
+    if (separator == -1)
+      return null;
+
+    try {
+      return Long.valueOf(id.substring(separator + 1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
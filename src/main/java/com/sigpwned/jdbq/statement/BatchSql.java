@@ -0,0 +1,382 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import static java.util.Collections.unmodifiableList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.sigpwned.jdbq.internal.lexer.SqlScanner;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+
+/**
+ * A single-row DML statement rewritten to apply to every row of one ARRAY&lt;STRUCT&gt; query
+ * parameter. Each named parameter <code>:name</code> becomes the struct field
+ * <code>batch_row.batch_name</code>, and the statement becomes:
+ *
+ * <ul>
+ * <li><code>INSERT INTO t (a, b) VALUES (:a, :b)</code> becomes
+ * <code>INSERT INTO t (a, b) SELECT batch_row.batch_a, batch_row.batch_b FROM UNNEST(@batch) AS
+ * batch_row</code></li>
+ * <li><code>UPDATE t SET a=:a WHERE id=:id</code> becomes
+ * <code>MERGE t USING UNNEST(@batch) AS batch_row ON id=batch_row.batch_id WHEN MATCHED THEN
+ * UPDATE SET a=batch_row.batch_a</code></li>
+ * <li><code>DELETE FROM t WHERE id=:id</code> becomes <code>MERGE t USING UNNEST(@batch) AS
+ * batch_row ON id=batch_row.batch_id WHEN MATCHED THEN DELETE</code></li>
+ * </ul>
+ *
+ * <p>
+ * Statements are inspected at the top level only, ignoring comments, quoted text, and anything in
+ * parentheses. Any other statement shape is rejected. Comments follow the same rules as
+ * {@link SqlScanner}, which finds the parameters: <code>--</code>, <code>//</code>, and
+ * <code>/* ... *&#47;</code>. BigQuery's <code>#</code> comments are not comments to either.
+ */
+final class BatchSql {
+  /**
+   * The name of the query parameter that holds the rows of the batch
+   */
+  public static final String PARAMETER_NAME = "batch";
+
+  private static final String ROW_ALIAS = "batch_row";
+
+  private static final String FIELD_PREFIX = "batch_";
+
+  private static final String SOURCE = "UNNEST(@" + PARAMETER_NAME + ") AS " + ROW_ALIAS;
+
+  public static BatchSql rewrite(String sql) {
+    Map<String, String> fieldNames = new LinkedHashMap<>();
+    Set<String> usedFieldNames = new HashSet<>();
+    List<String> occurrenceNames = new ArrayList<>();
+    List<Integer> occurrenceOffsets = new ArrayList<>();
+    StringBuilder rowSql = new StringBuilder(sql.length() + 32);
+    SqlScanner scanner = new SqlScanner(SqlScanner.Grammar.COLON, sql);
+    while (scanner.next()) {
+      switch (scanner.getType()) {
+        case NAMED_PARAM: {
+          String parameterName = scanner.getName();
+          String fieldName = fieldNames.get(parameterName);
+          if (fieldName == null) {
+            fieldName = toFieldName(parameterName, usedFieldNames);
+            fieldNames.put(parameterName, fieldName);
+          }
+          occurrenceNames.add(parameterName);
+          occurrenceOffsets.add(rowSql.length());
+          rowSql.append(ROW_ALIAS).append('.').append(fieldName);
+          break;
+        }
+        case POSITIONAL_PARAM:
+          throw new UnableToCreateStatementException(
+              "Batches support named parameters only, not positional parameters: " + sql);
+        case ESCAPED_TEXT:
+          rowSql.append(sql, scanner.getStart() + 1, scanner.getEnd());
+          break;
+        default:
+          rowSql.append(sql, scanner.getStart(), scanner.getEnd());
+          break;
+      }
+    }
+
+    // Comments are dropped, since the clauses of the statement are rearranged, and a line comment
+    // that ended one clause could otherwise swallow the next.
+    String text = mask(rowSql.toString(), false);
+    String masked = mask(text);
+
+    // Ignore trailing whitespace, semicolons, and comments, which are masked as whitespace.
+    int end = masked.length();
+    while (end > 0 && (Character.isWhitespace(masked.charAt(end - 1))
+        || masked.charAt(end - 1) == ';'))
+      end = end - 1;
+    if (indexOfTopLevel(masked, ';', 0, end) != -1)
+      throw new UnableToCreateStatementException("Batches support one statement only: " + sql);
+
+    final String rewritten;
+    final int condition;
+    if (startsWithKeyword(masked, "INSERT")) {
+      rewritten = rewriteInsert(sql, text, masked, end);
+      condition = -1;
+    } else if (startsWithKeyword(masked, "UPDATE")) {
+      rewritten = rewriteUpdate(sql, text, masked, end);
+      condition = indexOfKeyword(masked, "WHERE", 0, end);
+    } else if (startsWithKeyword(masked, "DELETE")) {
+      rewritten = rewriteDelete(sql, text, masked, end);
+      condition = indexOfKeyword(masked, "WHERE", 0, end);
+    } else {
+      throw new UnableToCreateStatementException(
+          "Batches support INSERT, UPDATE, and DELETE statements only: " + sql);
+    }
+
+    // The parameters of the WHERE clause, which becomes the MERGE condition
+    Set<String> conditionParameterNames = new LinkedHashSet<>();
+    if (condition != -1) {
+      for (int i = 0; i < occurrenceNames.size(); i++)
+        if (occurrenceOffsets.get(i) > condition)
+          conditionParameterNames.add(occurrenceNames.get(i));
+    }
+
+    return new BatchSql(rewritten, new ArrayList<>(fieldNames.keySet()),
+        new ArrayList<>(fieldNames.values()), new ArrayList<>(conditionParameterNames));
+  }
+
+  /**
+   * <code>INSERT [INTO] target [(columns)] VALUES (values)</code>
+   */
+  private static String rewriteInsert(String sql, String text, String masked, int end) {
+    int values = indexOfKeyword(masked, "VALUES", 0, end);
+    if (values == -1)
+      throw new UnableToCreateStatementException(
+          "Batched INSERT statements must have a VALUES clause: " + sql);
+
+    int open = skipWhitespace(masked, values + "VALUES".length(), end);
+    int close = open < end && masked.charAt(open) == '(' ? matchingParenthesis(masked, open, end)
+        : -1;
+    if (close == -1 || skipWhitespace(masked, close + 1, end) != end)
+      throw new UnableToCreateStatementException(
+          "Batched INSERT statements must have exactly one VALUES row: " + sql);
+
+    return text.substring(0, values) + "SELECT " + text.substring(open + 1, close) + "\nFROM "
+        + SOURCE;
+  }
+
+  /**
+   * <code>UPDATE target SET assignments WHERE condition</code>
+   */
+  private static String rewriteUpdate(String sql, String text, String masked, int end) {
+    int targetStart = masked.indexOf("UPDATE") + "UPDATE".length();
+    int set = indexOfKeyword(masked, "SET", targetStart, end);
+    int where = set != -1 ? indexOfKeyword(masked, "WHERE", set, end) : -1;
+    if (where == -1)
+      throw new UnableToCreateStatementException(
+          "Batched UPDATE statements must have SET and WHERE clauses: " + sql);
+    if (indexOfKeyword(masked, "FROM", set, where) != -1)
+      throw new UnableToCreateStatementException(
+          "Batched UPDATE statements must not have a FROM clause: " + sql);
+
+    return "MERGE " + text.substring(targetStart, set).trim() + " USING " + SOURCE + "\nON "
+        + text.substring(where + "WHERE".length(), end).trim()
+        + "\nWHEN MATCHED THEN UPDATE SET " + text.substring(set + "SET".length(), where).trim();
+  }
+
+  /**
+   * <code>DELETE [FROM] target WHERE condition</code>
+   */
+  private static String rewriteDelete(String sql, String text, String masked, int end) {
+    int targetStart = masked.indexOf("DELETE") + "DELETE".length();
+    int from = skipWhitespace(masked, targetStart, end);
+    if (indexOfKeyword(masked, "FROM", from, end) == from)
+      targetStart = from + "FROM".length();
+    int where = indexOfKeyword(masked, "WHERE", targetStart, end);
+    if (where == -1)
+      throw new UnableToCreateStatementException(
+          "Batched DELETE statements must have a WHERE clause: " + sql);
+
+    return "MERGE " + text.substring(targetStart, where).trim() + " USING " + SOURCE + "\nON "
+        + text.substring(where + "WHERE".length(), end).trim() + "\nWHEN MATCHED THEN DELETE";
+  }
+
+  /**
+   * Struct field names must be plain identifiers, so prefixed parameter names like
+   * <code>p.name</code> become <code>batch_p_name</code>.
+   */
+  private static String toFieldName(String parameterName, Set<String> usedFieldNames) {
+    StringBuilder buf = new StringBuilder(FIELD_PREFIX.length() + parameterName.length());
+    buf.append(FIELD_PREFIX);
+    for (int i = 0; i < parameterName.length(); i++) {
+      char ch = parameterName.charAt(i);
+      buf.append((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')
+          || ch == '_' ? ch : '_');
+    }
+
+    String result = buf.toString();
+    for (int i = 2; !usedFieldNames.add(result); i++)
+      result = buf + "_" + i;
+
+    return result;
+  }
+
+  /**
+   * Returns the given SQL upper-cased, with comments replaced by spaces and quoted text replaced by
+   * zeroes, so that keywords and punctuation can be found by index. Comments are recognized exactly
+   * as {@link SqlScanner} recognizes them, so text the scanner searched for parameters is never
+   * masked here, and vice versa.
+   */
+  static String mask(String sql) {
+    return mask(sql, true);
+  }
+
+  /**
+   * Returns the given SQL with comments replaced by spaces. If masking quotes, then the SQL is also
+   * upper-cased, and quoted text is replaced by zeroes.
+   */
+  private static String mask(String sql, boolean maskQuotes) {
+    final int length = sql.length();
+    char[] result = new char[length];
+    for (int i = 0; i < length; i++)
+      result[i] = maskQuotes ? Character.toUpperCase(sql.charAt(i)) : sql.charAt(i);
+    int i = 0;
+    while (i < length) {
+      char ch = sql.charAt(i);
+      int end;
+      char fill = ' ';
+      if (sql.startsWith("--", i) || sql.startsWith("//", i)) {
+        end = i + 2;
+        while (end < length && sql.charAt(end) != '\r' && sql.charAt(end) != '\n')
+          end = end + 1;
+      } else if (sql.startsWith("/*", i) && sql.indexOf("*/", i + 2) != -1) {
+        end = sql.indexOf("*/", i + 2) + 2;
+      } else if (ch == '\'' || ch == '"' || ch == '`') {
+        String quote = ch != '`' && sql.startsWith(new String(new char[] {ch, ch, ch}), i)
+            ? new String(new char[] {ch, ch, ch})
+            : String.valueOf(ch);
+        end = i + quote.length();
+        while (end < length && !sql.startsWith(quote, end))
+          end = end + (sql.charAt(end) == '\\' ? 2 : 1);
+        end = Math.min(end + quote.length(), length);
+        if (!maskQuotes) {
+          i = end;
+          continue;
+        }
+        fill = '0';
+      } else {
+        i = i + 1;
+        continue;
+      }
+      for (int j = i; j < end; j++)
+        result[j] = fill;
+      i = end;
+    }
+    return new String(result);
+  }
+
+  private static boolean startsWithKeyword(String masked, String keyword) {
+    int start = skipWhitespace(masked, 0, masked.length());
+    return indexOfKeyword(masked, keyword, start, masked.length()) == start;
+  }
+
+  /**
+   * Returns the index of the first occurrence of the given keyword as a whole word outside of
+   * parentheses in the given range, or -1 if there is none.
+   */
+  private static int indexOfKeyword(String masked, String keyword, int start, int end) {
+    int depth = 0;
+    for (int i = start; i < end; i++) {
+      char ch = masked.charAt(i);
+      if (ch == '(') {
+        depth = depth + 1;
+      } else if (ch == ')') {
+        depth = depth - 1;
+      } else if (depth == 0 && masked.startsWith(keyword, i)
+          && i + keyword.length() <= end
+          && (i == 0 || !isWordCharacter(masked.charAt(i - 1)))
+          && (i + keyword.length() == masked.length()
+              || !isWordCharacter(masked.charAt(i + keyword.length())))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int indexOfTopLevel(String masked, char target, int start, int end) {
+    int depth = 0;
+    for (int i = start; i < end; i++) {
+      char ch = masked.charAt(i);
+      if (ch == '(')
+        depth = depth + 1;
+      else if (ch == ')')
+        depth = depth - 1;
+      else if (depth == 0 && ch == target)
+        return i;
+    }
+    return -1;
+  }
+
+  private static int matchingParenthesis(String masked, int open, int end) {
+    int depth = 0;
+    for (int i = open; i < end; i++) {
+      char ch = masked.charAt(i);
+      if (ch == '(') {
+        depth = depth + 1;
+      } else if (ch == ')') {
+        depth = depth - 1;
+        if (depth == 0)
+          return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int skipWhitespace(String masked, int start, int end) {
+    while (start < end && Character.isWhitespace(masked.charAt(start)))
+      start = start + 1;
+    return start;
+  }
+
+  private static boolean isWordCharacter(char ch) {
+    return Character.isLetterOrDigit(ch) || ch == '_' || ch == '.' || ch == '$';
+  }
+
+  private final String sql;
+  private final List<String> parameterNames;
+  private final List<String> fieldNames;
+  private final List<String> conditionParameterNames;
+
+  private BatchSql(String sql, List<String> parameterNames, List<String> fieldNames,
+      List<String> conditionParameterNames) {
+    this.sql = sql;
+    this.parameterNames = unmodifiableList(parameterNames);
+    this.fieldNames = unmodifiableList(fieldNames);
+    this.conditionParameterNames = unmodifiableList(conditionParameterNames);
+  }
+
+  /**
+   * @return the rewritten SQL
+   */
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * @return the distinct named parameters of the original SQL, in order of first appearance
+   */
+  public List<String> getParameterNames() {
+    return parameterNames;
+  }
+
+  /**
+   * @return the struct field name of each parameter, in the same order as the parameter names
+   */
+  public List<String> getFieldNames() {
+    return fieldNames;
+  }
+
+  /**
+   * Returns the parameters of the WHERE clause of an UPDATE or DELETE, which decide the target rows
+   * each batch row matches. Batch rows with the same values for these parameters match the same
+   * target rows. Empty for an INSERT.
+   *
+   * @return the distinct named parameters of the WHERE clause, in order of first appearance
+   */
+  public List<String> getConditionParameterNames() {
+    return conditionParameterNames;
+  }
+}
@@ -0,0 +1,74 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import com.sigpwned.jdbq.internal.Maps;
+
+/**
+ * Finds named arguments among the entries of a map. The type of each argument is the runtime class
+ * of its value. If there is a prefix, then the argument names are the map keys qualified by the
+ * prefix, e.g., <code>p.name</code> for the key <code>name</code> with prefix <code>p</code>.
+ */
+class MapArgumentFinder implements NamedArgumentFinder {
+  private final String prefix;
+  private final Map<String, ?> map;
+
+  public MapArgumentFinder(String prefix, Map<String, ?> map) {
+    this.prefix = prefix;
+    this.map = requireNonNull(map);
+  }
+
+  @Override
+  public Argument find(String name) {
+    String key = ArgumentNames.unqualify(prefix, name);
+    if (key == null || !map.containsKey(key))
+      return null;
+
+    final Object value = map.get(key);
+    final Type type = value != null ? value.getClass() : Object.class;
+    return new Argument() {
+      @Override
+      public Type getType() {
+        return type;
+      }
+
+      @Override
+      public Object getValue() {
+        return value;
+      }
+    };
+  }
+
+  @Override
+  public Collection<String> getNames() {
+    return Maps.orderedKeys(map).stream().map(name -> ArgumentNames.qualify(prefix, name))
+        .collect(toList());
+  }
+
+  @Override
+  public String toString() {
+    return "MapArgumentFinder [prefix=" + prefix + ", map=" + map + "]";
+  }
+}
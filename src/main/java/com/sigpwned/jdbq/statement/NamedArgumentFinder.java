@@ -0,0 +1,42 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import java.util.Collection;
+
+/**
+ * Supplies named arguments on demand, e.g., from the properties of a bean. Statements only ask for
+ * the names their SQL actually uses, so values that are never used are never read.
+ *
+ * @see SqlStatement#bindBean(Object)
+ * @see SqlStatement#bindMap(java.util.Map)
+ */
+public interface NamedArgumentFinder {
+  /**
+   * @param name the argument name
+   * @return the argument with the given name, or null if this finder has no such argument
+   */
+  Argument find(String name);
+
+  /**
+   * @return the names of all the arguments this finder can supply
+   */
+  Collection<String> getNames();
+}
@@ -0,0 +1,79 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import com.sigpwned.jdbq.argument.ObjectAccessors;
+
+/**
+ * Finds named arguments among the values of an object, e.g., the properties of a bean. If there is
+ * a prefix, then the argument names are the value names qualified by the prefix, e.g.,
+ * <code>p.name</code> for the value <code>name</code> with prefix <code>p</code>.
+ */
+class ObjectArgumentFinder implements NamedArgumentFinder {
+  private final String prefix;
+  private final ObjectAccessors accessors;
+  private final Object target;
+
+  public ObjectArgumentFinder(String prefix, ObjectAccessors accessors, Object target) {
+    this.prefix = prefix;
+    this.accessors = requireNonNull(accessors);
+    this.target = requireNonNull(target);
+  }
+
+  @Override
+  public Argument find(String name) {
+    String key = ArgumentNames.unqualify(prefix, name);
+    if (key == null)
+      return null;
+
+    int index = accessors.indexOf(key);
+    if (index == -1)
+      return null;
+
+    final Type type = accessors.getType(index);
+    final Object value = accessors.getValue(index, target);
+    return new Argument() {
+      @Override
+      public Type getType() {
+        return type;
+      }
+
+      @Override
+      public Object getValue() {
+        return value;
+      }
+    };
+  }
+
+  @Override
+  public Collection<String> getNames() {
+    return accessors.getNames().stream().map(name -> ArgumentNames.qualify(prefix, name))
+        .collect(toList());
+  }
+
+  @Override
+  public String toString() {
+    return "ObjectArgumentFinder [prefix=" + prefix + ", target=" + target + "]";
+  }
+}
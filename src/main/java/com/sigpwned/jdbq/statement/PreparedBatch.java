@@ -0,0 +1,284 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import com.sigpwned.jdbq.Handle;
+import com.sigpwned.jdbq.argument.ArgumentConverter;
+import com.sigpwned.jdbq.argument.Arguments;
+import com.sigpwned.jdbq.parser.ParsedParameters;
+import com.sigpwned.jdbq.parser.ParsedSql;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+
+/**
+ * Executes a single-row INSERT, UPDATE, or DELETE statement for many rows of arguments in one
+ * BigQuery job. Bind the named arguments of each row and call {@link #add()}, then call
+ * {@link #execute()} to run the whole batch.
+ *
+ * <pre>
+ * handle.prepareBatch("INSERT INTO people (id, name) VALUES (:id, :name)")
+ *     .bind("id", 1L).bind("name", "Alice").add()
+ *     .bind("id", 2L).bind("name", "Bob").add()
+ *     .execute();
+ * </pre>
+ *
+ * <p>
+ * The rows are sent as one ARRAY&lt;STRUCT&gt; query parameter named <code>batch</code>, and the
+ * statement is rewritten to read them with <code>UNNEST(@batch)</code>. INSERT ... VALUES becomes
+ * INSERT ... SELECT, and UPDATE and DELETE become MERGE. As with any MERGE, each target row may
+ * match at most one batch row. Rows that bind the same WHERE clause arguments would match the same
+ * target rows, so exact duplicates are dropped, and an UPDATE whose duplicates differ elsewhere is
+ * rejected before it runs. Other overlaps, e.g., between range conditions, are left to BigQuery to
+ * report. Arguments may only be bound by name, and every row must bind every parameter. Struct
+ * fields are named <code>batch_</code> followed by the parameter name, which statements should
+ * avoid as column names.
+ * </p>
+ *
+ * @see Handle#prepareBatch(String)
+ */
+public class PreparedBatch extends SqlStatement<PreparedBatch> {
+  private final List<Map<String, Argument>> rows;
+
+  public PreparedBatch(Handle handle, String sql) {
+    super(handle, sql);
+    this.rows = new ArrayList<>();
+  }
+
+  /**
+   * Adds the arguments bound so far as a row of this batch, and clears them for the next row.
+   *
+   * @return this batch
+   */
+  public PreparedBatch add() {
+    ArgumentBinding binding = getContext().getArgumentBinding();
+    if (binding.isPositional())
+      throw new UnableToCreateStatementException("Batches support named arguments only");
+    rows.add(binding.isNamed() ? new LinkedHashMap<>(binding.resolveNamed())
+        : Collections.emptyMap());
+    binding.clear();
+    return this;
+  }
+
+  /**
+   * Binds the entries of the given map and adds them as a row of this batch.
+   *
+   * @param values the named arguments of the row
+   * @return this batch
+   */
+  public PreparedBatch add(Map<String, ?> values) {
+    return bindMap(values).add();
+  }
+
+  /**
+   * @return the number of rows added since the batch was last executed
+   */
+  public int size() {
+    return rows.size();
+  }
+
+  /**
+   * Executes the batch as one job, and clears its rows and arguments. If there are no rows, then no
+   * job runs.
+   *
+   * @return the number of rows modified by the whole batch
+   */
+  public long execute() {
+    if (rows.isEmpty())
+      return 0L;
+    try {
+      return Update.getUpdateCount(internalExecute());
+    } finally {
+      reset();
+    }
+  }
+
+  /**
+   * Executes the batch as one job asynchronously, and clears its rows and arguments. If there are
+   * no rows, then no job runs.
+   *
+   * @return a future of the number of rows modified by the whole batch
+   */
+  public CompletableFuture<Long> executeAsync() {
+    if (rows.isEmpty())
+      return CompletableFuture.completedFuture(0L);
+    try {
+      return internalExecuteAsync(Update::getUpdateCount);
+    } finally {
+      reset();
+    }
+  }
+
+  /**
+   * Clears the rows of this batch, and the <code>batch</code> parameter that {@link #prepareSql()}
+   * binds in their place, so the batch can be refilled and executed again. The parameter has been
+   * bound to the job by now, so the job does not need it.
+   */
+  private void reset() {
+    rows.clear();
+    getContext().getArgumentBinding().clear();
+  }
+
+  /**
+   * Rewrites the statement to apply to every row of the batch, and replaces the arguments with the
+   * single parameter that holds the rows.
+   */
+  @Override
+  ParsedSql prepareSql() {
+    final StatementContext ctx = getContext();
+
+    super.prepareSql();
+
+    BatchSql batchSql = BatchSql.rewrite(ctx.getRenderedSql());
+    QueryParameterValue batch = toParameterValue(batchSql);
+
+    ctx.getArgumentBinding().clear();
+    ctx.getArgumentBinding().addNamed(BatchSql.PARAMETER_NAME, QueryParameterValue.class, batch);
+
+    ParsedSql result =
+        ParsedSql.of(batchSql.getSql(), ParsedParameters.named(Collections.emptyList()));
+    ctx.setRenderedSql(batchSql.getSql());
+    ctx.setParsedSql(result);
+
+    return result;
+  }
+
+  /**
+   * Converts the rows of this batch to one ARRAY&lt;STRUCT&gt; value. Each field's converter is
+   * resolved once and reused for as long as the rows bind that field to the same type. Null values
+   * take the type of the field's other values, since BigQuery needs a type for every field.
+   */
+  private QueryParameterValue toParameterValue(BatchSql batchSql) {
+    final List<String> parameterNames = batchSql.getParameterNames();
+    final List<String> fieldNames = batchSql.getFieldNames();
+    final int fieldCount = parameterNames.size();
+    final Arguments arguments = getConfig(Arguments.class);
+    final List<Map<String, Argument>> batchRows =
+        distinctRows(rows, parameterNames, batchSql.getConditionParameterNames());
+
+    Type[] types = new Type[fieldCount];
+    ArgumentConverter[] converters = new ArgumentConverter[fieldCount];
+    StandardSQLTypeName[] fieldTypes = new StandardSQLTypeName[fieldCount];
+    List<QueryParameterValue[]> values = new ArrayList<>(batchRows.size());
+    for (int r = 0; r < batchRows.size(); r++) {
+      Map<String, Argument> row = batchRows.get(r);
+      QueryParameterValue[] rowValues = new QueryParameterValue[fieldCount];
+      for (int i = 0; i < fieldCount; i++) {
+        Argument argument = row.get(parameterNames.get(i));
+        if (argument == null)
+          throw new UnableToCreateStatementException(
+              "No parameter for name " + parameterNames.get(i) + " in batch row " + r);
+        if (argument.getValue() == null)
+          continue;
+        if (!argument.getType().equals(types[i])) {
+          types[i] = argument.getType();
+          converters[i] = arguments.findConverter(types[i]);
+        }
+        rowValues[i] = converters[i].convert(argument.getValue(), getContext().getConfig());
+        if (fieldTypes[i] == null)
+          fieldTypes[i] = rowValues[i].getType();
+      }
+      values.add(rowValues);
+    }
+
+    List<QueryParameterValue> elements = new ArrayList<>(values.size());
+    for (QueryParameterValue[] rowValues : values) {
+      Map<String, QueryParameterValue> fields = new LinkedHashMap<>();
+      for (int i = 0; i < fieldCount; i++) {
+        QueryParameterValue value = rowValues[i];
+        if (value == null)
+          value = nullValue(parameterNames.get(i), fieldTypes[i]);
+        fields.put(fieldNames.get(i), value);
+      }
+      elements.add(QueryParameterValue.struct(fields));
+    }
+
+    return QueryParameterValue.newBuilder().setType(StandardSQLTypeName.ARRAY)
+        .setArrayType(StandardSQLTypeName.STRUCT).setArrayValues(elements).build();
+  }
+
+  /**
+   * Returns the given rows without rows that repeat an earlier row exactly. Repeats match the same
+   * target rows, so dropping them does not change what the statement does, but MERGE would reject
+   * them. Rows that bind the same non-null condition arguments as an earlier row, but differ
+   * elsewhere, would update the same target rows in two different ways, so they are rejected.
+   */
+  static List<Map<String, Argument>> distinctRows(List<Map<String, Argument>> rows,
+      List<String> parameterNames, List<String> conditionParameterNames) {
+    if (conditionParameterNames.isEmpty())
+      return rows;
+
+    List<Map<String, Argument>> result = new ArrayList<>(rows.size());
+    Map<List<Object>, Integer> firstRows = new HashMap<>();
+    for (int r = 0; r < rows.size(); r++) {
+      Map<String, Argument> row = rows.get(r);
+      List<Object> condition = values(row, conditionParameterNames);
+      if (condition == null || condition.contains(null)) {
+        result.add(row);
+        continue;
+      }
+
+      Integer first = firstRows.putIfAbsent(condition, r);
+      if (first == null) {
+        result.add(row);
+      } else if (!Objects.equals(values(row, parameterNames),
+          values(rows.get(first), parameterNames))) {
+        throw new UnableToCreateStatementException("Batch rows " + first + " and " + r
+            + " bind the same " + conditionParameterNames
+            + ", so they match the same target rows, but bind different values otherwise");
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the values of the given arguments of the given row, or null if any is not bound
+   */
+  private static List<Object> values(Map<String, Argument> row, List<String> names) {
+    List<Object> result = new ArrayList<>(names.size());
+    for (String name : names) {
+      Argument argument = row.get(name);
+      if (argument == null)
+        return null;
+      result.add(argument.getValue());
+    }
+    return result;
+  }
+
+  private static QueryParameterValue nullValue(String parameterName, StandardSQLTypeName type) {
+    if (type == null)
+      throw new UnableToCreateStatementException("Cannot determine type of batch parameter "
+          + parameterName + ", which is null in every row");
+    if (type == StandardSQLTypeName.ARRAY || type == StandardSQLTypeName.STRUCT)
+      throw new UnableToCreateStatementException(
+          "Batch parameter " + parameterName + " cannot be null, since it has type " + type);
+    return QueryParameterValue.newBuilder().setType(type).build();
+  }
+}
@@ -0,0 +1,68 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import static java.util.Objects.requireNonNull;
+import com.sigpwned.jdbq.Handle;
+
+/**
+ * A query that has been rendered and parsed once, and can be executed any number of times with
+ * different arguments. Each execution reuses the prepared SQL, the argument converters resolved for
+ * each parameter slot, and the row mappers resolved for each result type, so only binding and
+ * execution remain per call. Prepared queries are thread-safe.
+ *
+ * <pre>
+ * PreparedQuery byId = handle.prepareQuery("SELECT * FROM people WHERE id=:id");
+ * Person person = byId.createQuery().bind("id", id).mapTo(Person.class).one();
+ * </pre>
+ *
+ * <p>
+ * The configuration, attributes, and arguments of the query at the time it was prepared are the
+ * starting point of every execution. Changing the configuration of the handle afterwards does not
+ * affect a prepared query.
+ * </p>
+ *
+ * @see Query#prepare()
+ */
+public class PreparedQuery {
+  private final Handle handle;
+  private final StatementPlan plan;
+
+  PreparedQuery(Handle handle, StatementPlan plan) {
+    this.handle = requireNonNull(handle);
+    this.plan = requireNonNull(plan);
+  }
+
+  /**
+   * Creates a new query from this prepared query, ready to bind and execute.
+   *
+   * @return the new query
+   */
+  public Query createQuery() {
+    return new Query(handle, plan);
+  }
+
+  /**
+   * @return the SQL this query was prepared from
+   */
+  public String getSql() {
+    return plan.getRawSql();
+  }
+}
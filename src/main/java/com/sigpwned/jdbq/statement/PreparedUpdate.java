@@ -0,0 +1,68 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import static java.util.Objects.requireNonNull;
+import com.sigpwned.jdbq.Handle;
+
+/**
+ * An update that has been rendered and parsed once, and can be executed any number of times with
+ * different arguments. Each execution reuses the prepared SQL and the argument converters resolved
+ * for each parameter slot, so only binding and execution remain per call. Prepared updates are
+ * thread-safe.
+ *
+ * <pre>
+ * PreparedUpdate rename = handle.prepareUpdate("UPDATE people SET name=:name WHERE id=:id");
+ * rename.createUpdate().bind("id", id).bind("name", name).one();
+ * </pre>
+ *
+ * <p>
+ * The configuration, attributes, and arguments of the update at the time it was prepared are the
+ * starting point of every execution. Changing the configuration of the handle afterwards does not
+ * affect a prepared update.
+ * </p>
+ *
+ * @see Update#prepare()
+ */
+public class PreparedUpdate {
+  private final Handle handle;
+  private final StatementPlan plan;
+
+  PreparedUpdate(Handle handle, StatementPlan plan) {
+    this.handle = requireNonNull(handle);
+    this.plan = requireNonNull(plan);
+  }
+
+  /**
+   * Creates a new update from this prepared update, ready to bind and execute.
+   *
+   * @return the new update
+   */
+  public Update createUpdate() {
+    return new Update(handle, plan);
+  }
+
+  /**
+   * @return the SQL this update was prepared from
+   */
+  public String getSql() {
+    return plan.getRawSql();
+  }
+}
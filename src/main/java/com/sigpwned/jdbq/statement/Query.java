@@ -21,9 +21,18 @@ package com.sigpwned.jdbq.statement;
 
 import java.io.InterruptedIOException;
 import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import com.google.cloud.bigquery.BigQuery.QueryResultsOption;
 import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.QueryJobConfiguration.JobCreationMode;
+import com.google.cloud.bigquery.TableResult;
 import com.sigpwned.jdbq.Handle;
+import com.sigpwned.jdbq.mapper.Mappers;
+import com.sigpwned.jdbq.mapper.row.RowMapper;
 import com.sigpwned.jdbq.result.FieldValueListsResultSet;
+import com.sigpwned.jdbq.result.ResultIterable;
 import com.sigpwned.jdbq.result.ResultSet;
 import com.sigpwned.jdbq.result.ResultSetScanner;
 
@@ -32,19 +41,79 @@ public class Query extends SqlStatement<Query> implements ResultBearing {
     super(handle, sql);
   }
 
+  Query(Handle handle, StatementPlan plan) {
+    super(handle, plan);
+  }
+
+  /**
+   * Renders and parses this query once, and returns a thread-safe {@link PreparedQuery} that can
+   * execute it many times with different arguments. The attributes and arguments of this query so
+   * far become the starting point of every execution. This query is not executed.
+   *
+   * @return the prepared query
+   */
+  public PreparedQuery prepare() {
+    return new PreparedQuery(getHandle(), createPlan());
+  }
+
+  /**
+   * Queries created from a {@link PreparedQuery} reuse the row mapper the prepared query resolved
+   * for the given type, if any.
+   */
+  @Override
+  public ResultIterable<?> mapTo(Type type) {
+    final StatementPlan plan = getPlan();
+    if (plan == null)
+      return ResultBearing.super.mapTo(type);
+    final RowMapper<?> mapper = plan.findRowMapper(type, getConfig(Mappers.class));
+    return scanResultSet((supplier, ctx) -> ResultIterable.of(supplier, mapper, ctx));
+  }
+
   @Override
   public <R> R scanResultSet(ResultSetScanner<R> mapper) {
     return mapper.scanResultSet(this::execute, getContext());
   }
 
+  /**
+   * Executes the query asynchronously. The returned future completes once the job is done, without
+   * parking a thread while the job runs. Rows are fetched when the resulting {@link ResultBearing}
+   * is mapped, e.g., {@code query.executeAsync().thenApply(r -> r.mapTo(Foo.class).list())}.
+   * Asynchronous queries always create a job, regardless of
+   * {@link SqlStatements#getJobCreationMode()}. Cancelling the returned future cancels the job.
+   *
+   * @return a future of the completed query results
+   */
+  public CompletableFuture<ResultBearing> executeAsync() {
+    return internalExecuteAsync(job -> ResultBearing.of(() -> getResults(job), getContext()));
+  }
+
   private ResultSet execute() {
-    Job job = internalExecute();
+    JobCreationMode jobCreationMode = getConfig(SqlStatements.class).getJobCreationMode();
+    if (jobCreationMode == JobCreationMode.JOB_CREATION_OPTIONAL)
+      return newResultSet(internalQuery());
+    return getResults(internalExecute());
+  }
+
+  private ResultSet getResults(Job job) {
+    OptionalLong maxRowsHint = getContext().getMaxRowsHint();
     try {
-      return new FieldValueListsResultSet(job.getQueryResults().getValues());
+      if (maxRowsHint.isPresent())
+        return newResultSet(
+            job.getQueryResults(QueryResultsOption.pageSize(maxRowsHint.getAsLong())));
+      return newResultSet(job.getQueryResults());
     } catch (InterruptedException e) {
       // This should never happen, since internalExecute() waits for job completion.
       Thread.currentThread().interrupt();
       throw new UncheckedIOException(new InterruptedIOException());
     }
   }
+
+  private ResultSet newResultSet(TableResult firstPage) {
+    SqlStatements config = getConfig(SqlStatements.class);
+    // There's no sense prefetching pages the consumer has promised not to read.
+    if (config.getPrefetchPages() == 0 || getContext().getMaxRowsHint().isPresent())
+      return new FieldValueListsResultSet(firstPage);
+    return new FieldValueListsResultSet(firstPage, config.getPrefetchPages(),
+        config.getPrefetchExecutor());
+  }
 }
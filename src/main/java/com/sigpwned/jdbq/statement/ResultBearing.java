@@ -21,6 +21,7 @@ package com.sigpwned.jdbq.statement;
 
 import java.lang.reflect.Type;
 import java.util.function.Supplier;
+import com.google.cloud.bigquery.FieldValueList;
 import org.apache.http.client.methods.Configurable;
 import com.sigpwned.jdbq.generic.GenericType;
 import com.sigpwned.jdbq.mapper.Mappers;
@@ -111,6 +112,17 @@ public interface ResultBearing {
     });
   }
 
+  /**
+   * Returns the number of rows in this result set. Rows are neither transferred nor mapped when
+   * BigQuery reports the total row count alongside the results.
+   *
+   * @return the number of rows in this result set
+   * @see ResultIterable#count()
+   */
+  default long count() {
+    return map((RowMapper<FieldValueList>) (rs, ctx) -> rs).count();
+  }
+
   /**
    * Maps this result set to a {@link ResultIterable}, using the given row mapper.
    *
@@ -23,41 +23,92 @@ import static java.util.Objects.requireNonNull;
 import java.io.InterruptedIOException;
 import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.net.URI;
 import java.net.URL;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryError;
 import com.google.cloud.bigquery.BigQueryException;
 import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobException;
 import com.google.cloud.bigquery.JobInfo;
 import com.google.cloud.bigquery.QueryJobConfiguration;
+import com.google.cloud.bigquery.QueryJobConfiguration.JobCreationMode;
 import com.google.cloud.bigquery.QueryParameterValue;
+import com.google.cloud.bigquery.TableResult;
 import com.sigpwned.jdbq.Handle;
+import com.sigpwned.jdbq.Jdbq;
+import com.sigpwned.jdbq.argument.ArgumentConverter;
 import com.sigpwned.jdbq.argument.Arguments;
+import com.sigpwned.jdbq.argument.ObjectAccessors;
 import com.sigpwned.jdbq.config.JdbqConfig;
+import com.sigpwned.jdbq.job.JobPoller;
+import com.sigpwned.jdbq.parser.ParsedParameters;
 import com.sigpwned.jdbq.parser.ParsedSql;
 import com.sigpwned.jdbq.statement.exception.UnableToCleanupStatementException;
 import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
 import com.sigpwned.jdbq.statement.exception.UnableToExecuteStatementException;
 import com.sigpwned.jdbq.statement.exception.UnableToSetupStatementException;
+import com.sigpwned.jdbq.template.ParsingTemplateEngine;
+import com.sigpwned.jdbq.template.TemplateEngine;
 import io.leangen.geantyref.TypeFactory;
 
 public abstract class SqlStatement<This extends SqlStatement<This>> extends BaseStatement<This> {
+  /**
+   * Matches the start of a query, skipping leading whitespace, comments, and parentheses
+   */
+  private static final Pattern QUERY_PREFIX = Pattern.compile(
+      "^(?:\\s+|--[^\\n]*\\n|//[^\\n]*\\n|/\\*.*?\\*/|\\()*(?:SELECT|WITH)\\b",
+      Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+  /**
+   * Matches a LIMIT clause that is not followed by a closing parenthesis, i.e., is not nested in a
+   * subquery
+   */
+  private static final Pattern TRAILING_LIMIT =
+      Pattern.compile("\\bLIMIT\\b[^)]*$", Pattern.CASE_INSENSITIVE);
+
+  private static final Pattern TRAILING_SEMICOLONS = Pattern.compile("[\\s;]*$");
+
   private final String sql;
+  private final StatementPlan plan;
   private QueryJobConfiguration.Builder stmt;
 
   SqlStatement(Handle handle, String sql) {
     super(handle);
     this.sql = requireNonNull(sql);
+    this.plan = null;
 
     getContext().setRawSql(sql);
   }
 
+  /**
+   * Creates a statement that executes the given prepared plan. The statement starts out with the
+   * configuration, attributes, and arguments the plan was prepared with, and skips templating and
+   * parsing entirely.
+   */
+  SqlStatement(Handle handle, StatementPlan plan) {
+    super(handle, plan.getConfig());
+    this.sql = plan.getRawSql();
+    this.plan = plan;
+
+    plan.apply(getContext());
+  }
+
   @SuppressWarnings("unchecked")
   public This define(String key, Object value) {
     getAttributeBinding().define(key, value);
@@ -256,6 +307,38 @@ public abstract class SqlStatement<This extends SqlStatement<This>> extends Base
     return bindByType(name, byte[].class, value);
   }
 
+  public This bind(int position, long[] value) {
+    return bindByType(position, long[].class, value);
+  }
+
+  public This bind(String name, long[] value) {
+    return bindByType(name, long[].class, value);
+  }
+
+  public This bind(int position, int[] value) {
+    return bindByType(position, int[].class, value);
+  }
+
+  public This bind(String name, int[] value) {
+    return bindByType(name, int[].class, value);
+  }
+
+  public This bind(int position, double[] value) {
+    return bindByType(position, double[].class, value);
+  }
+
+  public This bind(String name, double[] value) {
+    return bindByType(name, double[].class, value);
+  }
+
+  public This bind(int position, boolean[] value) {
+    return bindByType(position, boolean[].class, value);
+  }
+
+  public This bind(String name, boolean[] value) {
+    return bindByType(name, boolean[].class, value);
+  }
+
   @SuppressWarnings("unchecked")
   public This bindByType(int position, Type type, Object value) {
     getArgumentBinding().addPositional(position, type, value);
@@ -269,6 +352,77 @@ public abstract class SqlStatement<This extends SqlStatement<This>> extends Base
     return (This) this;
   }
 
+  /**
+   * Binds the properties of the given bean as named arguments, e.g., <code>:name</code> for the
+   * property <code>name</code>. If the given object is a record, then its components are bound
+   * instead. Property values are only read for the parameters the SQL actually uses.
+   */
+  public This bindBean(Object bean) {
+    return bindBean(null, bean);
+  }
+
+  /**
+   * Binds the properties of the given bean as named arguments qualified by the given prefix, e.g.,
+   * <code>:p.name</code> for the property <code>name</code> with prefix <code>p</code>.
+   */
+  public This bindBean(String prefix, Object bean) {
+    return bindNamedArgumentFinder(
+        new ObjectArgumentFinder(prefix, ObjectAccessors.beanProperties(bean.getClass()), bean));
+  }
+
+  /**
+   * Binds the public fields of the given object as named arguments.
+   */
+  public This bindFields(Object object) {
+    return bindFields(null, object);
+  }
+
+  /**
+   * Binds the public fields of the given object as named arguments qualified by the given prefix.
+   */
+  public This bindFields(String prefix, Object object) {
+    return bindNamedArgumentFinder(
+        new ObjectArgumentFinder(prefix, ObjectAccessors.fields(object.getClass()), object));
+  }
+
+  /**
+   * Binds the public no-argument methods of the given object as named arguments, e.g.,
+   * <code>:name</code> for the method <code>name()</code>.
+   */
+  public This bindMethods(Object object) {
+    return bindMethods(null, object);
+  }
+
+  /**
+   * Binds the public no-argument methods of the given object as named arguments qualified by the
+   * given prefix.
+   */
+  public This bindMethods(String prefix, Object object) {
+    return bindNamedArgumentFinder(
+        new ObjectArgumentFinder(prefix, ObjectAccessors.methods(object.getClass()), object));
+  }
+
+  /**
+   * Binds the entries of the given map as named arguments. The type of each argument is the
+   * runtime class of its value.
+   */
+  public This bindMap(Map<String, ?> map) {
+    return bindMap(null, map);
+  }
+
+  /**
+   * Binds the entries of the given map as named arguments qualified by the given prefix.
+   */
+  public This bindMap(String prefix, Map<String, ?> map) {
+    return bindNamedArgumentFinder(new MapArgumentFinder(prefix, map));
+  }
+
+  @SuppressWarnings("unchecked")
+  public This bindNamedArgumentFinder(NamedArgumentFinder finder) {
+    getArgumentBinding().addNamedArgumentFinder(finder);
+    return (This) this;
+  }
+
   @SuppressWarnings("unchecked")
   public <T> This bindArray(int position, T... array) {
     return bindArray(position, array.getClass().getComponentType(), array);
@@ -311,9 +465,207 @@ public abstract class SqlStatement<This extends SqlStatement<This>> extends Base
   Job internalExecute() {
     final StatementContext ctx = getContext();
 
+    prepareStatement();
+
+    final CompletableFuture<Job> watch;
+    try {
+      watch = watchJob(getHandle().getClient().create(JobInfo.of(stmt.build())));
+    } catch (BigQueryException e) {
+      throw new UnableToExecuteStatementException(e, ctx);
+    }
+
+    Job result;
+    try {
+      result = watch.get();
+    } catch (InterruptedException e) {
+      // This is a titch awkward. We don't want to make every caller handle InterruptedException,
+      // but we do need to throw something...
+      UncheckedIOException exception = new UncheckedIOException(new InterruptedIOException());
+      try {
+        ctx.cancel();
+      } catch (RuntimeException x) {
+        exception.addSuppressed(x);
+      }
+      Thread.currentThread().interrupt();
+      throw exception;
+    } catch (ExecutionException e) {
+      throw translateJobException(e.getCause(), ctx);
+    }
+
+    afterExecution();
+
+    return result;
+  }
+
+  /**
+   * Returns the first page of the results of the query, executed through the stateless
+   * {@link BigQuery#query(QueryJobConfiguration, BigQuery.JobOption...)} path with optional job
+   * creation. BigQuery answers short queries inline without inserting a job, and creates a job only
+   * when it needs one to run the query, in which case the client waits for the job itself.
+   *
+   * @throws UnableToExecuteStatementException if a BigQuery exception is thrown
+   * @throws UncheckedIOException with cause InterrupedIOException in case interrupted. The current
+   *         thread is re-interrupted first.
+   */
+  TableResult internalQuery() {
+    final StatementContext ctx = getContext();
+
+    prepareStatement();
+
+    stmt.setJobCreationMode(JobCreationMode.JOB_CREATION_OPTIONAL);
+
+    TableResult result;
+    try {
+      result = getHandle().getClient().query(stmt.build());
+    } catch (InterruptedException e) {
+      // The client waits for the job, if it creates one, itself, and does not tell us its ID until
+      // it returns. Cancelling the statement is all we can do, as in internalExecute.
+      UncheckedIOException exception = new UncheckedIOException(new InterruptedIOException());
+      try {
+        ctx.cancel();
+      } catch (RuntimeException x) {
+        exception.addSuppressed(x);
+      }
+      Thread.currentThread().interrupt();
+      throw exception;
+    } catch (BigQueryException | JobException e) {
+      throw translateJobException(e, ctx);
+    }
+
+    afterExecution();
+
+    return result;
+  }
+
+  /**
+   * Returns a future of the result of the given function applied to the completed job. The
+   * statement is prepared and the job is created on the calling thread, but no thread waits for the
+   * job to complete. Instead, the job is watched by the {@link JobPoller} of the {@link Jdbq} that
+   * owns this statement. Any exception, including failures during preparation, is reported through
+   * the returned future.
+   *
+   * <p>
+   * The function is applied here, rather than by the caller with {@code thenApply}, so that the
+   * returned future is the one the caller sees. Cancelling it cancels the statement, and its job.
+   * Cancelling a dependent future would not.
+   */
+  <T> CompletableFuture<T> internalExecuteAsync(Function<? super Job, ? extends T> finisher) {
+    final StatementContext ctx = getContext();
+
+    final CompletableFuture<Job> watch;
+    try {
+      prepareStatement();
+      watch = watchJob(getHandle().getClient().create(JobInfo.of(stmt.build())));
+    } catch (BigQueryException e) {
+      return failedFuture(new UnableToExecuteStatementException(e, ctx));
+    } catch (RuntimeException e) {
+      return failedFuture(e);
+    }
+
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    watch.whenComplete((completed, e) -> {
+      if (e != null) {
+        result.completeExceptionally(translateJobException(
+            e instanceof CompletionException && e.getCause() != null ? e.getCause() : e, ctx));
+        return;
+      }
+
+      final T value;
+      try {
+        afterExecution();
+        value = finisher.apply(completed);
+      } catch (RuntimeException x) {
+        result.completeExceptionally(x);
+        return;
+      }
+
+      result.complete(value);
+    });
+
+    // If the caller gives up on the job, then we should cancel it, too.
+    result.whenComplete((completed, e) -> {
+      if (result.isCancelled())
+        ctx.cancel();
+    });
+
+    return result;
+  }
+
+  /**
+   * Hands the given job to the {@link JobPoller} of the {@link Jdbq} that owns this statement.
+   * Blocking and asynchronous executions alike wait on the shared poller, so no statement runs its
+   * own polling loop. The job is cancelled if the statement is cancelled before the job completes.
+   */
+  private CompletableFuture<Job> watchJob(Job job) {
+    final StatementContext ctx = getContext();
+
+    final CompletableFuture<Job> result = getHandle().getJdbq().getJobPoller().watch(job);
+
+    // If the statement is cancelled or closed while its job is still running, then cancel the
+    // job, too. There's no sense in paying for results nobody will read.
+    ctx.setJobId(job.getJobId());
+    ctx.addCancellable(() -> {
+      if (result.cancel(false))
+        getHandle().getClient().cancel(job.getJobId());
+    });
+    ctx.addCleanable(() -> {
+      if (!result.isDone())
+        ctx.cancel();
+    });
+
+    return result;
+  }
+
+  private static RuntimeException translateJobException(Throwable e, StatementContext ctx) {
+    if (e instanceof BigQueryException)
+      return new UnableToExecuteStatementException((BigQueryException) e, ctx);
+    if (e instanceof JobException) {
+      // The client waited for the job itself, and the job failed. Report its first error, as for
+      // the jobs we watch ourselves, and keep the original exception for its full list of errors.
+      List<BigQueryError> errors = ((JobException) e).getErrors();
+      BigQueryException cause = new BigQueryException(BigQueryException.UNKNOWN_CODE,
+          e.getMessage(), errors != null && !errors.isEmpty() ? errors.get(0) : null);
+      cause.addSuppressed(e);
+      return new UnableToExecuteStatementException(cause, ctx);
+    }
+    if (e instanceof RuntimeException)
+      return (RuntimeException) e;
+    if (e instanceof Error)
+      throw (Error) e;
+    return new UndeclaredThrowableException(e);
+  }
+
+  /**
+   * Renders and parses this statement's SQL, and captures the result, along with this statement's
+   * configuration, attributes, and arguments, as a reusable plan. The statement is not executed.
+   */
+  StatementPlan createPlan() {
+    if (plan != null)
+      return plan;
+
     beforeTemplating();
 
-    ParsedSql parsedSql = parseSql();
+    parseSql();
+
+    return new StatementPlan(getContext());
+  }
+
+  /**
+   * @return the plan this statement executes, or null if it was not created from a plan
+   */
+  StatementPlan getPlan() {
+    return plan;
+  }
+
+  /**
+   * Runs the statement lifecycle up to, but not including, job creation: templating, parsing,
+   * statement creation, and binding, along with the associated customizer callbacks. Statements
+   * created from a plan reuse the plan's parsed SQL, so they skip templating.
+   */
+  private void prepareStatement() {
+    final StatementContext ctx = getContext();
+
+    ParsedSql parsedSql = prepareSql();
 
     try {
       stmt = createStatement(ctx, parsedSql);
@@ -325,24 +677,83 @@ public abstract class SqlStatement<This extends SqlStatement<This>> extends Base
 
     beforeBinding();
 
+    bindArguments(ctx, parsedSql.getParameters());
+
+    OptionalLong maxRowsHint = ctx.getMaxRowsHint();
+    if (maxRowsHint.isPresent())
+      stmt.setMaxResults(maxRowsHint.getAsLong());
+
+    beforeExecution();
+  }
+
+  /**
+   * Runs the statement lifecycle up to, but not including, job creation, and returns the job
+   * configuration this statement would run. Used to combine statements into one script job.
+   */
+  QueryJobConfiguration createJobConfiguration() {
+    prepareStatement();
+    return stmt.build();
+  }
+
+  /**
+   * Returns this statement's parsed SQL, from its plan if it has one, or by templating and parsing
+   * its SQL otherwise. Subclasses in this package may rewrite the SQL and its arguments here,
+   * before the statement is created and bound.
+   */
+  ParsedSql prepareSql() {
+    final StatementContext ctx = getContext();
+
+    ParsedSql parsedSql;
+    if (plan != null) {
+      parsedSql = plan.getParsedSql();
+      ctx.setRenderedSql(plan.getRenderedSql());
+      ctx.setParsedSql(parsedSql);
+    } else {
+      beforeTemplating();
+      parsedSql = parseSql();
+    }
+
+    return parsedSql;
+  }
+
+  /**
+   * Binds this statement's arguments to the statement. Named parameters like <code>:name</code>
+   * are rewritten to positional <code>?</code> parameters by the parser, so they are bound by
+   * position, in order of appearance, from the named arguments. Named arguments for SQL with no
+   * parsed parameters, e.g., SQL that uses BigQuery's own <code>@name</code> syntax, are bound by
+   * name.
+   */
+  private void bindArguments(StatementContext ctx, ParsedParameters parameters) {
     if (getArgumentBinding().isEmpty()) {
       // Well, that was easy.
     } else if (getArgumentBinding().isNamed()) {
-      for (Map.Entry<String, Argument> entry : getArgumentBinding().getNamed().entrySet()) {
-        String parameterName = entry.getKey();
-        Argument argument = entry.getValue();
-        QueryParameterValue parameterValue = getConfig(Arguments.class).map(argument.getType(),
-            argument.getValue(), ctx.getConfig());
-        if (parameterValue == null)
-          throw new UnableToCreateStatementException("No parameter for name " + parameterName);
-        stmt.addNamedParameter(parameterName, parameterValue);
+      if (!parameters.isPositional() && parameters.getParameterCount() != 0) {
+        List<String> parameterNames = parameters.getParameterNames();
+        for (int slot = 0; slot < parameterNames.size(); slot++) {
+          String parameterName = parameterNames.get(slot);
+          Argument argument = getArgumentBinding().findNamed(parameterName);
+          QueryParameterValue parameterValue =
+              argument != null ? convertArgument(slot, argument) : null;
+          if (parameterValue == null)
+            throw new UnableToCreateStatementException("No parameter for name " + parameterName);
+          stmt.addPositionalParameter(parameterValue);
+        }
+      } else {
+        Map<String, Argument> arguments = getArgumentBinding().resolveNamed();
+        for (Map.Entry<String, Argument> entry : arguments.entrySet()) {
+          String parameterName = entry.getKey();
+          QueryParameterValue parameterValue = convertArgument(parameterName, entry.getValue());
+          if (parameterValue == null)
+            throw new UnableToCreateStatementException("No parameter for name " + parameterName);
+          stmt.addNamedParameter(parameterName, parameterValue);
+        }
       }
     } else if (getArgumentBinding().isPositional()) {
-      for (int parameterPosition = 0; parameterPosition < getArgumentBinding().getPositionals()
-          .size(); parameterPosition++) {
-        Argument argument = getArgumentBinding().getPositionals().get(parameterPosition);
-        QueryParameterValue parameterValue = getConfig(Arguments.class).map(argument.getType(),
-            argument.getValue(), ctx.getConfig());
+      Map<Integer, Argument> arguments = getArgumentBinding().getPositionals();
+      for (int parameterPosition = 0; parameterPosition < arguments.size(); parameterPosition++) {
+        Argument argument = arguments.get(parameterPosition);
+        QueryParameterValue parameterValue =
+            argument != null ? convertArgument(parameterPosition, argument) : null;
         if (parameterValue == null)
           throw new UnableToCreateStatementException(
               "No parameter for position " + parameterPosition);
@@ -351,39 +762,67 @@ public abstract class SqlStatement<This extends SqlStatement<This>> extends Base
     } else {
       throw new AssertionError("unrecognized binding type " + getArgumentBinding());
     }
+  }
 
-    beforeExecution();
+  /**
+   * Converts the given argument bound to the given slot, reusing the converter resolved by earlier
+   * executions of the same plan, if any.
+   */
+  private QueryParameterValue convertArgument(Object slot, Argument argument) {
+    final StatementContext ctx = getContext();
+    final Arguments arguments = getConfig(Arguments.class);
+    final ArgumentConverter converter = plan != null
+        ? plan.findConverter(slot, argument.getType(), arguments)
+        : arguments.findConverter(argument.getType());
+    return converter.convert(argument.getValue(), ctx.getConfig());
+  }
 
-    Job result;
-    try {
-      result = getHandle().getClient().create(JobInfo.of(stmt.build())).waitFor();
-    } catch (InterruptedException e) {
-      // This is a titch awkward. We don't want to make every caller handle InterruptedException,
-      // but we do need to throw something...
-      Thread.currentThread().interrupt();
-      throw new UncheckedIOException(new InterruptedIOException());
-    } catch (BigQueryException e) {
-      throw new UnableToExecuteStatementException(e, ctx);
-    }
+  private QueryJobConfiguration.Builder createStatement(final StatementContext ctx,
+      ParsedSql parsedSql) {
+    String sql = parsedSql.getSql();
 
-    afterExecution();
+    OptionalLong maxRowsHint = ctx.getMaxRowsHint();
+    // Don't push down LIMIT 0, which would change the total row count reported for count().
+    if (maxRowsHint.isPresent() && maxRowsHint.getAsLong() > 0L
+        && getConfig(SqlStatements.class).isLimitPushdown())
+      sql = pushDownLimit(sql, maxRowsHint.getAsLong());
 
-    return result;
+    return getConfig(SqlStatements.class).getStatementBuilder().create(sql, ctx);
   }
 
-  private QueryJobConfiguration.Builder createStatement(final StatementContext ctx,
-      ParsedSql parsedSql) {
-    return getConfig(SqlStatements.class).getStatementBuilder().create(parsedSql.getSql(), ctx);
+  /**
+   * Appends a {@code LIMIT} clause to the given SQL if it is a single query that does not already
+   * end in one. Appending a limit to a query never changes which rows come first, so this is safe
+   * even for ordered queries. Anything that doesn't look like a plain query is returned unchanged.
+   */
+  private static String pushDownLimit(String sql, long limit) {
+    String query = TRAILING_SEMICOLONS.matcher(sql).replaceFirst("");
+    if (query.indexOf(';') != -1)
+      return sql;
+    if (!QUERY_PREFIX.matcher(query).lookingAt())
+      return sql;
+    if (TRAILING_LIMIT.matcher(query).find())
+      return sql;
+    return query + "\nLIMIT " + limit;
   }
 
   private ParsedSql parseSql() {
-    String renderedSql =
-        getConfig(SqlStatements.class).getTemplateEngine().render(sql, getContext());
-    getContext().setRenderedSql(renderedSql);
-
-    ParsedSql parsedSql =
-        getConfig(SqlStatements.class).getSqlParser().parse(renderedSql, getContext());
-    getContext().setParsedSql(parsedSql);
+    final StatementContext ctx = getContext();
+    final SqlStatements config = getConfig(SqlStatements.class);
+    final TemplateEngine templateEngine = config.getTemplateEngine();
+
+    ParsedSql parsedSql;
+    if (templateEngine instanceof ParsingTemplateEngine) {
+      // Render and parse in one pass, and only render the SQL on its own if someone asks for it.
+      ParsingTemplateEngine parsingTemplateEngine = (ParsingTemplateEngine) templateEngine;
+      parsedSql = parsingTemplateEngine.renderAndParse(sql, ctx);
+      ctx.setRenderedSql(() -> parsingTemplateEngine.render(sql, ctx));
+    } else {
+      String renderedSql = templateEngine.render(sql, ctx);
+      ctx.setRenderedSql(renderedSql);
+      parsedSql = config.getParsedSqlCache().parse(config.getSqlParser(), renderedSql, ctx);
+    }
+    ctx.setParsedSql(parsedSql);
 
     return parsedSql;
   }
@@ -422,7 +861,13 @@ public abstract class SqlStatement<This extends SqlStatement<This>> extends Base
     }
   }
 
-  private void afterExecution() {
+  /**
+   * Calls the customizers' {@link StatementCustomizer#afterExecution} callbacks. Package-private so
+   * that statements that run other statements as part of their own job, e.g., {@link Batch}, can
+   * pair each part's beforeExecution callbacks with afterExecution callbacks.
+   */
+  void afterExecution() {
+    getContext().setJobDone();
     try {
       callCustomizers(c -> c.afterExecution(stmt, getContext()));
     } catch (Exception e) {
@@ -430,6 +875,12 @@ public abstract class SqlStatement<This extends SqlStatement<This>> extends Base
     }
   }
 
+  private static <T> CompletableFuture<T> failedFuture(Throwable e) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    result.completeExceptionally(e);
+    return result;
+  }
+
   private ArgumentBinding getArgumentBinding() {
     return getContext().getArgumentBinding();
   }
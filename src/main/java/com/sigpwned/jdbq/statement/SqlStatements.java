@@ -30,41 +30,84 @@
  */
 package com.sigpwned.jdbq.statement;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.requireNonNull;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.google.cloud.bigquery.QueryJobConfiguration.JobCreationMode;
 import com.sigpwned.jdbq.config.JdbqConfig;
 import com.sigpwned.jdbq.parser.ColonPrefixSqlParser;
+import com.sigpwned.jdbq.parser.ParsedSql;
+import com.sigpwned.jdbq.parser.ParsedSqlCache;
 import com.sigpwned.jdbq.parser.SqlParser;
 import com.sigpwned.jdbq.statement.builder.DefaultStatementBuilder;
 import com.sigpwned.jdbq.statement.builder.StatementBuilder;
+import com.sigpwned.jdbq.template.DefinedAttributeParsingTemplateEngine;
 import com.sigpwned.jdbq.template.DefinedAttributeTemplateEngine;
+import com.sigpwned.jdbq.template.ParsingTemplateEngine;
 import com.sigpwned.jdbq.template.TemplateEngine;
 
 /**
  * Configuration holder for {@link SqlStatement}s.
  */
 public final class SqlStatements implements JdbqConfig<SqlStatements> {
-  private final Collection<StatementCustomizer> customizers;
+  /**
+   * Lazily creates the executor used to prefetch result pages when none is configured.
+   */
+  private static final class DefaultPrefetchExecutorHolder {
+    private static final AtomicInteger THREAD_NUMBERS = new AtomicInteger(1);
+
+    private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(r -> {
+      Thread result = new Thread(r, "jdbq-page-prefetcher-" + THREAD_NUMBERS.getAndIncrement());
+      result.setDaemon(true);
+      return result;
+    });
+  }
+
+  /**
+   * The registered customizers. The list is immutable, so copies of this config share it until
+   * either one adds a customizer, at which point it gets a list of its own.
+   */
+  private volatile List<StatementCustomizer> customizers;
   private StatementBuilder statementBuilder;
   private TemplateEngine templateEngine;
   private SqlParser sqlParser;
+  private ParsedSqlCache parsedSqlCache;
   private boolean allowUnusedBindings;
+  private JobCreationMode jobCreationMode;
+  private int prefetchPages;
+  private ExecutorService prefetchExecutor;
+  private boolean limitPushdown;
 
   public SqlStatements() {
-    customizers = new CopyOnWriteArrayList<>();
+    customizers = emptyList();
     statementBuilder = new DefaultStatementBuilder();
     templateEngine = new DefinedAttributeTemplateEngine();
     sqlParser = new ColonPrefixSqlParser();
+    parsedSqlCache = new ParsedSqlCache(ParsedSqlCache.DEFAULT_MAXIMUM_SIZE);
     allowUnusedBindings = false;
+    jobCreationMode = JobCreationMode.JOB_CREATION_REQUIRED;
+    prefetchPages = 0;
+    prefetchExecutor = null;
+    limitPushdown = false;
   }
 
   private SqlStatements(SqlStatements that) {
-    this.customizers = new CopyOnWriteArrayList<>(that.customizers);
+    this.customizers = that.customizers;
     this.statementBuilder = that.statementBuilder;
     this.templateEngine = that.templateEngine;
     this.sqlParser = that.sqlParser;
+    this.parsedSqlCache = that.parsedSqlCache;
     this.allowUnusedBindings = that.allowUnusedBindings;
+    this.jobCreationMode = that.jobCreationMode;
+    this.prefetchPages = that.prefetchPages;
+    this.prefetchExecutor = that.prefetchExecutor;
+    this.limitPushdown = that.limitPushdown;
   }
 
   /**
@@ -74,8 +117,11 @@ public final class SqlStatements implements JdbqConfig<SqlStatements> {
    * @param customizer instance to be used to customize a statement
    * @return this
    */
-  public SqlStatements addCustomizer(final StatementCustomizer customizer) {
-    this.customizers.add(customizer);
+  public synchronized SqlStatements addCustomizer(final StatementCustomizer customizer) {
+    List<StatementCustomizer> customizers = new ArrayList<>(this.customizers.size() + 1);
+    customizers.addAll(this.customizers);
+    customizers.add(customizer);
+    this.customizers = unmodifiableList(customizers);
     return this;
   }
 
@@ -106,6 +152,8 @@ public final class SqlStatements implements JdbqConfig<SqlStatements> {
    * Sets the {@link TemplateEngine} used to render SQL for all {@link SqlStatement SQL statements}
    * executed by Jdbi. The default engine replaces <code>&lt;name&gt;</code>-style tokens with
    * attributes {@link StatementContext#define(String, Object) defined} on the statement context.
+   * A {@link ParsingTemplateEngine}, e.g., {@link DefinedAttributeParsingTemplateEngine}, also
+   * parses parameters while rendering, and replaces the configured {@link SqlParser}.
    *
    * @param templateEngine the new template engine.
    * @return this
@@ -128,6 +176,32 @@ public final class SqlStatements implements JdbqConfig<SqlStatements> {
    */
   public SqlStatements setSqlParser(SqlParser sqlParser) {
     this.sqlParser = requireNonNull(sqlParser);
+    this.parsedSqlCache = new ParsedSqlCache(parsedSqlCache.getMaximumSize());
+    return this;
+  }
+
+  /**
+   * Returns the cache of {@link ParsedSql} that sits in front of the {@link SqlParser}. The cache
+   * is shared by all copies of this configuration that use the same parser, and reports hit and
+   * miss counts for monitoring.
+   *
+   * @return the parsed SQL cache
+   */
+  public ParsedSqlCache getParsedSqlCache() {
+    return parsedSqlCache;
+  }
+
+  /**
+   * Sets the maximum number of parsed statements to cache, keyed by rendered SQL. Repeated
+   * executions of the same statement then skip parsing entirely. Set to 0 to disable caching,
+   * e.g., for a {@link SqlParser} whose result depends on more than the SQL text. Defaults to
+   * {@value ParsedSqlCache#DEFAULT_MAXIMUM_SIZE}. Replaces the current cache with an empty one.
+   *
+   * @param maximumSize the maximum number of parsed statements to cache
+   * @return this
+   */
+  public SqlStatements setParsedSqlCacheSize(int maximumSize) {
+    this.parsedSqlCache = new ParsedSqlCache(maximumSize);
     return this;
   }
 
@@ -149,12 +223,95 @@ public final class SqlStatements implements JdbqConfig<SqlStatements> {
     return this;
   }
 
+  public JobCreationMode getJobCreationMode() {
+    return jobCreationMode;
+  }
+
+  /**
+   * Sets how {@link Query queries} are executed. With
+   * {@link JobCreationMode#JOB_CREATION_REQUIRED}, the default, every query inserts a job, waits
+   * for it, and then fetches its results. With
+   * {@link JobCreationMode#JOB_CREATION_OPTIONAL}, queries are sent through the stateless query
+   * path instead, which lets BigQuery answer short queries in a single round trip with the first
+   * page of results inline, and create a job only when the query requires one. Updates always
+   * create a job.
+   *
+   * @param jobCreationMode the new job creation mode
+   * @return this
+   */
+  public SqlStatements setJobCreationMode(JobCreationMode jobCreationMode) {
+    this.jobCreationMode = requireNonNull(jobCreationMode);
+    return this;
+  }
+
+  public int getPrefetchPages() {
+    return prefetchPages;
+  }
+
+  /**
+   * Sets how many result pages are fetched ahead of the consumer while iterating query results.
+   * When positive, a background task keeps up to this many pages buffered, so that mapping the rows
+   * of one page overlaps with downloading the next. Defaults to 0: pages are fetched on demand.
+   *
+   * @param prefetchPages the maximum number of pages to fetch ahead
+   * @return this
+   */
+  public SqlStatements setPrefetchPages(int prefetchPages) {
+    if (prefetchPages < 0)
+      throw new IllegalArgumentException("prefetchPages must not be negative");
+    this.prefetchPages = prefetchPages;
+    return this;
+  }
+
+  /**
+   * Returns the executor on which result pages are prefetched. Unless one has been set, this is a
+   * shared pool of daemon threads.
+   *
+   * @return the prefetch executor
+   */
+  public ExecutorService getPrefetchExecutor() {
+    return prefetchExecutor != null ? prefetchExecutor : DefaultPrefetchExecutorHolder.INSTANCE;
+  }
+
+  /**
+   * Sets the executor on which result pages are prefetched.
+   *
+   * @param prefetchExecutor the new prefetch executor
+   * @return this
+   */
+  public SqlStatements setPrefetchExecutor(ExecutorService prefetchExecutor) {
+    this.prefetchExecutor = requireNonNull(prefetchExecutor);
+    return this;
+  }
+
+  public boolean isLimitPushdown() {
+    return limitPushdown;
+  }
+
+  /**
+   * Sets whether queries read by terminal operations that only look at the first row or two, e.g.,
+   * {@link com.sigpwned.jdbq.result.ResultIterable#one()}, have a {@code LIMIT} clause appended to
+   * their SQL when it is safe to do so, i.e., the SQL is a single {@code SELECT} or {@code WITH}
+   * query that does not already end in a {@code LIMIT} clause. Such queries always fetch smaller
+   * pages of results; this additionally lets BigQuery stop producing rows early. Defaults to false.
+   *
+   * @param limitPushdown the new setting
+   * @return this
+   */
+  public SqlStatements setLimitPushdown(boolean limitPushdown) {
+    this.limitPushdown = limitPushdown;
+    return this;
+  }
+
   @Override
   public SqlStatements createCopy() {
     return new SqlStatements(this);
   }
 
-  Collection<StatementCustomizer> getCustomizers() {
+  /**
+   * @return the registered customizers, in the order they are applied
+   */
+  public Collection<StatementCustomizer> getCustomizers() {
     return customizers;
   }
 }
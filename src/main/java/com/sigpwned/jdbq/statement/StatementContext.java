@@ -25,7 +25,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import com.google.cloud.bigquery.JobId;
 import com.google.cloud.bigquery.QueryJobConfiguration;
 import com.sigpwned.jdbq.CloseException;
 import com.sigpwned.jdbq.config.ConfigRegistry;
@@ -37,14 +41,22 @@ public class StatementContext implements Closeable {
   private final Set<Cleanable> cleanables;
   private String rawSql;
   private String renderedSql;
+  private Supplier<String> renderedSqlSupplier;
   private ParsedSql parsedSql;
   private ArgumentBinding argumentBinding;
   private AttributeBinding attributeBinding;
   private QueryJobConfiguration.Builder statement;
+  private final List<Cleanable> cancellables;
+  private volatile JobId jobId;
+  private volatile boolean jobDone;
+  private OptionalLong maxRowsHint;
+  private volatile boolean cancelled;
 
   public StatementContext(ConfigRegistry config) {
     this.config = requireNonNull(config);
     this.cleanables = new LinkedHashSet<>();
+    this.cancellables = new CopyOnWriteArrayList<>();
+    this.maxRowsHint = OptionalLong.empty();
     this.argumentBinding = new ArgumentBinding();
     this.attributeBinding = new AttributeBinding();
   }
@@ -67,6 +79,8 @@ public class StatementContext implements Closeable {
    * @return the renderedSql
    */
   public String getRenderedSql() {
+    if (renderedSql == null && renderedSqlSupplier != null)
+      renderedSql = renderedSqlSupplier.get();
     return renderedSql;
   }
 
@@ -75,6 +89,18 @@ public class StatementContext implements Closeable {
    */
   void setRenderedSql(String renderedSql) {
     this.renderedSql = renderedSql;
+    this.renderedSqlSupplier = null;
+  }
+
+  /**
+   * Sets the rendered SQL to be computed on first access, for statements that are parsed without
+   * ever rendering their SQL.
+   *
+   * @param renderedSqlSupplier renders the SQL
+   */
+  void setRenderedSql(Supplier<String> renderedSqlSupplier) {
+    this.renderedSql = null;
+    this.renderedSqlSupplier = renderedSqlSupplier;
   }
 
   /**
@@ -105,10 +131,101 @@ public class StatementContext implements Closeable {
     this.statement = statement;
   }
 
+  /**
+   * @return the ID of the job created to execute the statement, or {@code null} if no job has been
+   *         created (yet)
+   */
+  public JobId getJobId() {
+    return jobId;
+  }
+
+  /**
+   * @param jobId the jobId to set
+   */
+  void setJobId(JobId jobId) {
+    this.jobId = jobId;
+  }
+
+  /**
+   * Returns {@code true} once the statement's job has completed and its results, if any, are ready
+   * to read. Closing the results of a statement whose job is done does not cancel the statement.
+   *
+   * @return whether the statement's job is done
+   */
+  public boolean isJobDone() {
+    return jobDone;
+  }
+
+  void setJobDone() {
+    this.jobDone = true;
+  }
+
+  /**
+   * Returns the maximum number of result rows the consumer of the results will read, if known.
+   * Statements use this hint to fetch smaller pages of results, and optionally to push a
+   * {@code LIMIT} down into the query.
+   *
+   * @return the maximum number of rows that will be read, if known
+   */
+  public OptionalLong getMaxRowsHint() {
+    return maxRowsHint;
+  }
+
+  /**
+   * Sets the maximum number of result rows the consumer of the results will read. This is a
+   * promise: rows beyond the hint may not be fetched, or may not exist in the results at all.
+   * {@link com.sigpwned.jdbq.result.ResultIterable} sets the hint for the terminal operations that
+   * only look at the first row or two, e.g., {@code one()} and {@code first()}.
+   *
+   * @param maxRowsHint the maximum number of rows that will be read, if known
+   */
+  public void setMaxRowsHint(OptionalLong maxRowsHint) {
+    this.maxRowsHint = requireNonNull(maxRowsHint);
+  }
+
+  /**
+   * Returns {@code true} if the statement was cancelled before its job completed, whether by
+   * {@link #cancel()}, by an interrupt while waiting for its job, or by closing its results early.
+   *
+   * @return whether the statement was cancelled
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Cancels the statement. If its job is still running, then the job is cancelled, so it stops
+   * consuming slots and quota. The cancellation is recorded either way, and reported by
+   * {@link #isCancelled()}. May be called from any thread.
+   */
+  public void cancel() {
+    cancelled = true;
+
+    RuntimeException exception = null;
+    for (Cleanable cancellable : cancellables) {
+      try {
+        cancellable.close();
+      } catch (RuntimeException e) {
+        if (exception == null) {
+          exception = e;
+        } else {
+          exception.addSuppressed(e);
+        }
+      }
+    }
+
+    if (exception != null)
+      throw exception;
+  }
+
   void addCleanable(Cleanable cleanable) {
     cleanables.add(cleanable);
   }
 
+  void addCancellable(Cleanable cancellable) {
+    cancellables.add(cancellable);
+  }
+
   /**
    * Gets the configuration object of the given type, associated with this context.
    *
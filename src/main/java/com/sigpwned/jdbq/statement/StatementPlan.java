@@ -0,0 +1,149 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.sigpwned.jdbq.argument.ArgumentConverter;
+import com.sigpwned.jdbq.argument.Arguments;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+import com.sigpwned.jdbq.mapper.Mappers;
+import com.sigpwned.jdbq.mapper.NoSuchMapperException;
+import com.sigpwned.jdbq.mapper.row.RowMapper;
+import com.sigpwned.jdbq.parser.ParsedSql;
+
+/**
+ * The reusable part of a prepared statement: its configuration, its rendered and parsed SQL, the
+ * attributes and default arguments it was prepared with, and the argument converters and row
+ * mappers resolved by its executions so far. Plans are immutable apart from their caches, which
+ * are thread-safe, so one plan can back any number of concurrent executions.
+ *
+ * @see PreparedQuery
+ * @see PreparedUpdate
+ */
+final class StatementPlan {
+  private final ConfigRegistry config;
+  private final String rawSql;
+  private final Map<String, Object> attributes;
+  private final Map<String, Argument> namedArguments;
+  private final Map<Integer, Argument> positionalArguments;
+  private final List<NamedArgumentFinder> namedArgumentFinders;
+  private final String renderedSql;
+  private final ParsedSql parsedSql;
+
+  /**
+   * The converter for each parameter slot, keyed by position for positional and slot-bound named
+   * parameters, or by name for parameters bound by name.
+   */
+  private final ConcurrentHashMap<Object, ArgumentConverter> converters;
+
+  private final ConcurrentHashMap<Type, RowMapper<?>> rowMappers;
+
+  public StatementPlan(StatementContext ctx) {
+    this.config = ctx.getConfig().createCopy();
+    this.rawSql = requireNonNull(ctx.getRawSql());
+    this.attributes = unmodifiableMap(new HashMap<>(ctx.getAttributeBinding().getAttributes()));
+    this.namedArguments = ctx.getArgumentBinding().isNamed()
+        ? unmodifiableMap(new HashMap<>(ctx.getArgumentBinding().getNamed()))
+        : null;
+    this.positionalArguments = ctx.getArgumentBinding().isPositional()
+        ? unmodifiableMap(new HashMap<>(ctx.getArgumentBinding().getPositionals()))
+        : null;
+    this.namedArgumentFinders =
+        unmodifiableList(new ArrayList<>(ctx.getArgumentBinding().getNamedArgumentFinders()));
+    this.renderedSql = ctx.getRenderedSql();
+    this.parsedSql = requireNonNull(ctx.getParsedSql());
+    this.converters = new ConcurrentHashMap<>();
+    this.rowMappers = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Copies the attributes and default arguments of this plan into the given context.
+   */
+  public void apply(StatementContext ctx) {
+    ctx.setRawSql(rawSql);
+    for (Map.Entry<String, Object> e : attributes.entrySet())
+      ctx.getAttributeBinding().define(e.getKey(), e.getValue());
+    if (namedArguments != null) {
+      for (Map.Entry<String, Argument> e : namedArguments.entrySet())
+        ctx.getArgumentBinding().addNamed(e.getKey(), e.getValue().getType(),
+            e.getValue().getValue());
+    }
+    for (NamedArgumentFinder finder : namedArgumentFinders)
+      ctx.getArgumentBinding().addNamedArgumentFinder(finder);
+    if (positionalArguments != null) {
+      for (Map.Entry<Integer, Argument> e : positionalArguments.entrySet())
+        ctx.getArgumentBinding().addPositional(e.getKey(), e.getValue().getType(),
+            e.getValue().getValue());
+    }
+  }
+
+  /**
+   * Returns the converter for the given parameter slot and argument type. The converter is reused
+   * for as long as the slot is bound to arguments of the same type.
+   */
+  public ArgumentConverter findConverter(Object slot, Type type, Arguments arguments) {
+    ArgumentConverter result = converters.get(slot);
+    if (result == null || !result.getType().equals(type)) {
+      result = arguments.findConverter(type);
+      converters.put(slot, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the row mapper for the given type, resolving it with the given mappers the first time.
+   *
+   * @throws NoSuchMapperException if there is no mapper for the given type
+   */
+  public RowMapper<?> findRowMapper(Type type, Mappers mappers) {
+    // We don't use computeIfAbsent here due to JDK-8062841
+    RowMapper<?> result = rowMappers.get(type);
+    if (result == null) {
+      result = mappers.findFor(type).orElseThrow(
+          () -> new NoSuchMapperException("No mapper registered for type " + type));
+      rowMappers.put(type, result);
+    }
+    return result;
+  }
+
+  public ConfigRegistry getConfig() {
+    return config;
+  }
+
+  public String getRawSql() {
+    return rawSql;
+  }
+
+  public String getRenderedSql() {
+    return renderedSql;
+  }
+
+  public ParsedSql getParsedSql() {
+    return parsedSql;
+  }
+}
@@ -20,6 +20,7 @@
 package com.sigpwned.jdbq.statement;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import com.google.cloud.bigquery.Job;
 import com.google.cloud.bigquery.JobStatistics;
 import com.sigpwned.jdbq.Handle;
@@ -32,6 +33,21 @@ public class Update extends SqlStatement<Update> {
     super(handle, sql);
   }
 
+  Update(Handle handle, StatementPlan plan) {
+    super(handle, plan);
+  }
+
+  /**
+   * Renders and parses this update once, and returns a thread-safe {@link PreparedUpdate} that can
+   * execute it many times with different arguments. The attributes and arguments of this update so
+   * far become the starting point of every execution. This update is not executed.
+   *
+   * @return the prepared update
+   */
+  public PreparedUpdate prepare() {
+    return new PreparedUpdate(getHandle(), createPlan());
+  }
+
   public void one() {
     long count = execute();
     if (count != 1L) {
@@ -45,7 +61,21 @@ public class Update extends SqlStatement<Update> {
    * @return the number of rows modified
    */
   public long execute() {
-    Job job = internalExecute();
+    return getUpdateCount(internalExecute());
+  }
+
+  /**
+   * Executes the statement asynchronously. The returned future completes with the update count
+   * once the job is done, without parking a thread while the job runs. Cancelling the returned
+   * future cancels the job.
+   *
+   * @return a future of the number of rows modified
+   */
+  public CompletableFuture<Long> executeAsync() {
+    return internalExecuteAsync(Update::getUpdateCount);
+  }
+
+  static long getUpdateCount(Job job) {
     JobStatistics.QueryStatistics statistics = job.getStatistics();
     // Return 0 if statistics.getNumDmlAffectedRows() is null to prevent a NullPointerException (NPE)
     return Optional.ofNullable(statistics.getNumDmlAffectedRows()).orElse(0L);
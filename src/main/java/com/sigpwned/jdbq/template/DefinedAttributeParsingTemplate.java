@@ -0,0 +1,188 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.sigpwned.jdbq.internal.lexer.SqlScanner;
+import com.sigpwned.jdbq.internal.lexer.SqlScanner.TokenType;
+import com.sigpwned.jdbq.parser.ParsedSql;
+import com.sigpwned.jdbq.statement.StatementContext;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+
+/**
+ * An immutable, compiled template for {@link DefinedAttributeParsingTemplateEngine}. The template
+ * is scanned once into a list of operations: runs of already-parsed SQL, named and positional
+ * parameters, and attribute slots. Only attribute values are parsed at render time.
+ */
+final class DefinedAttributeParsingTemplate {
+  public static DefinedAttributeParsingTemplate compile(String template) {
+    List<TokenType> opTypes = new ArrayList<>();
+    List<String> opValues = new ArrayList<>();
+    List<String> literals = new ArrayList<>();
+
+    StringBuilder sql = new StringBuilder();
+    int literalStart = 0;
+    SqlScanner scanner = new SqlScanner(SqlScanner.Grammar.COLON_DEFINE, template);
+    while (scanner.next()) {
+      switch (scanner.getType()) {
+        case LITERAL:
+          sql.append(template, scanner.getStart(), scanner.getEnd());
+          break;
+        case ESCAPED_TEXT:
+          sql.append(template, scanner.getStart() + 1, scanner.getEnd());
+          break;
+        case NAMED_PARAM:
+          flush(sql, opTypes, opValues);
+          opTypes.add(TokenType.NAMED_PARAM);
+          opValues.add(scanner.getName());
+          break;
+        case POSITIONAL_PARAM:
+          flush(sql, opTypes, opValues);
+          opTypes.add(TokenType.POSITIONAL_PARAM);
+          opValues.add(null);
+          break;
+        case DEFINE:
+          flush(sql, opTypes, opValues);
+          opTypes.add(TokenType.DEFINE);
+          opValues.add(scanner.getName());
+          literals.add(template.substring(literalStart, scanner.getStart()));
+          literalStart = scanner.getEnd();
+          break;
+        default:
+          break;
+      }
+    }
+    flush(sql, opTypes, opValues);
+    literals.add(template.substring(literalStart));
+
+    return new DefinedAttributeParsingTemplate(opTypes.toArray(new TokenType[0]),
+        opValues.toArray(new String[0]), literals.toArray(new String[0]));
+  }
+
+  private static void flush(StringBuilder sql, List<TokenType> opTypes, List<String> opValues) {
+    if (sql.length() != 0) {
+      opTypes.add(TokenType.LITERAL);
+      opValues.add(sql.toString());
+      sql.setLength(0);
+    }
+  }
+
+  /**
+   * The operations of the template. For {@link TokenType#LITERAL}, the value is parsed SQL; for
+   * {@link TokenType#NAMED_PARAM}, the parameter name; for {@link TokenType#DEFINE}, the attribute
+   * name; and for {@link TokenType#POSITIONAL_PARAM}, null.
+   */
+  private final TokenType[] opTypes;
+  private final String[] opValues;
+
+  /**
+   * The raw text between attribute slots, for rendering without parsing
+   */
+  private final String[] literals;
+
+  /**
+   * The parsed SQL of a template with no attributes, which is the same for every render, once
+   * computed. ParsedSql is immutable, so racing to compute it is harmless.
+   */
+  private ParsedSql constant;
+
+  private DefinedAttributeParsingTemplate(TokenType[] opTypes, String[] opValues,
+      String[] literals) {
+    this.opTypes = opTypes;
+    this.opValues = opValues;
+    this.literals = literals;
+  }
+
+  public ParsedSql renderAndParse(StatementContext ctx) {
+    if (literals.length == 1) {
+      ParsedSql result = constant;
+      if (result == null)
+        constant = result = parse(ctx);
+      return result;
+    }
+    return parse(ctx);
+  }
+
+  public String render(StatementContext ctx) {
+    StringBuilder buf = new StringBuilder(literals[0]);
+    for (int i = 0, attribute = 1; i < opTypes.length; i++) {
+      if (opTypes[i] == TokenType.DEFINE) {
+        buf.append(getAttribute(opValues[i], ctx));
+        buf.append(literals[attribute++]);
+      }
+    }
+    return buf.toString();
+  }
+
+  private ParsedSql parse(StatementContext ctx) {
+    ParsedSql.Builder parsedSql = ParsedSql.builder();
+    for (int i = 0; i < opTypes.length; i++) {
+      switch (opTypes[i]) {
+        case LITERAL:
+          parsedSql.append(opValues[i]);
+          break;
+        case NAMED_PARAM:
+          parsedSql.appendNamedParameter(opValues[i]);
+          break;
+        case POSITIONAL_PARAM:
+          parsedSql.appendPositionalParameter();
+          break;
+        case DEFINE:
+          parseAttributeValue(parsedSql, getAttribute(opValues[i], ctx).toString());
+          break;
+        default:
+          throw new AssertionError(opTypes[i]);
+      }
+    }
+    return parsedSql.build();
+  }
+
+  private static void parseAttributeValue(ParsedSql.Builder parsedSql, String value) {
+    SqlScanner scanner = new SqlScanner(SqlScanner.Grammar.COLON, value);
+    while (scanner.next()) {
+      switch (scanner.getType()) {
+        case LITERAL:
+          parsedSql.append(value, scanner.getStart(), scanner.getEnd());
+          break;
+        case NAMED_PARAM:
+          parsedSql.appendNamedParameter(scanner.getName());
+          break;
+        case POSITIONAL_PARAM:
+          parsedSql.appendPositionalParameter();
+          break;
+        case ESCAPED_TEXT:
+          parsedSql.append(value, scanner.getStart() + 1, scanner.getEnd());
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  private static Object getAttribute(String name, StatementContext ctx) {
+    Object value = ctx.getAttributeBinding().getAttribute(name);
+    if (value == null) {
+      throw new UnableToCreateStatementException(
+          "Undefined attribute for token '<" + name + ">'", ctx);
+    }
+    return value;
+  }
+}
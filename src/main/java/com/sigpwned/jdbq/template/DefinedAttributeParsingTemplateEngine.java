@@ -0,0 +1,74 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.template;
+
+import com.sigpwned.jdbq.internal.BoundedCache;
+import com.sigpwned.jdbq.parser.ParsedSql;
+import com.sigpwned.jdbq.statement.StatementContext;
+
+/**
+ * Template engine which replaces angle-bracketed tokens like <code>&lt;name&gt;</code> with the
+ * string value of the named attribute, and parses colon-prefixed named parameters like
+ * <code>:name</code> and positional parameters like <code>?</code>, in a single pass. Select it
+ * with {@link com.sigpwned.jdbq.statement.SqlStatements#setTemplateEngine(TemplateEngine)}.
+ * <p>
+ * Each distinct template is compiled once into pre-parsed SQL runs and attribute slots, and cached
+ * by its text. Rendering only parses the values of the attributes it substitutes, and never builds
+ * the full rendered SQL unless asked for it, e.g., for an error message.
+ * </p>
+ * <p>
+ * Unlike rendering with {@link DefinedAttributeTemplateEngine} and then parsing with
+ * {@link com.sigpwned.jdbq.parser.ColonPrefixSqlParser}, each attribute value is parsed as a
+ * self-contained SQL fragment, so quotes, comments, and parameter names never span the boundary
+ * between the template and an attribute value, and a backslash escapes the following character
+ * exactly once.
+ * </p>
+ */
+public class DefinedAttributeParsingTemplateEngine implements ParsingTemplateEngine {
+  public static final int DEFAULT_CACHE_SIZE = 1000;
+
+  private final BoundedCache<String, DefinedAttributeParsingTemplate> templates;
+
+  public DefinedAttributeParsingTemplateEngine() {
+    this(DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * @param cacheSize the maximum number of compiled templates to cache. If zero, every template is
+   *        compiled on every render.
+   */
+  public DefinedAttributeParsingTemplateEngine(int cacheSize) {
+    this.templates = new BoundedCache<>(cacheSize);
+  }
+
+  @Override
+  public String render(String template, StatementContext ctx) {
+    return compile(template).render(ctx);
+  }
+
+  @Override
+  public ParsedSql renderAndParse(String template, StatementContext ctx) {
+    return compile(template).renderAndParse(ctx);
+  }
+
+  private DefinedAttributeParsingTemplate compile(String template) {
+    return templates.computeIfAbsent(template, DefinedAttributeParsingTemplate::compile);
+  }
+}
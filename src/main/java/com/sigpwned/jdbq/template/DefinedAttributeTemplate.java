@@ -0,0 +1,106 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.sigpwned.jdbq.internal.lexer.SqlScanner;
+import com.sigpwned.jdbq.statement.StatementContext;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+
+/**
+ * An immutable, compiled template for {@link DefinedAttributeTemplateEngine}. The template is
+ * tokenized once into alternating literal runs and attribute slots, so rendering only looks up
+ * attribute values and concatenates.
+ */
+final class DefinedAttributeTemplate {
+  public static DefinedAttributeTemplate compile(String template) {
+    List<String> literals = new ArrayList<>();
+    List<String> attributeNames = new ArrayList<>();
+
+    StringBuilder literal = new StringBuilder();
+    SqlScanner scanner = new SqlScanner(SqlScanner.Grammar.DEFINE, template);
+    while (scanner.next()) {
+      switch (scanner.getType()) {
+        case LITERAL:
+          literal.append(template, scanner.getStart(), scanner.getEnd());
+          break;
+        case DEFINE:
+          literals.add(literal.toString());
+          literal.setLength(0);
+          attributeNames.add(scanner.getName());
+          break;
+        case ESCAPED_TEXT:
+          literal.append(template, scanner.getStart() + 1, scanner.getEnd());
+          break;
+        default:
+          break;
+      }
+    }
+    literals.add(literal.toString());
+
+    return new DefinedAttributeTemplate(literals.toArray(new String[0]),
+        attributeNames.toArray(new String[0]));
+  }
+
+  /**
+   * The literal runs of the template. There is always exactly one more literal than attribute, and
+   * the template is literals[0], attributeNames[0], literals[1], ..., literals[n].
+   */
+  private final String[] literals;
+  private final String[] attributeNames;
+  private final int literalLength;
+
+  private DefinedAttributeTemplate(String[] literals, String[] attributeNames) {
+    this.literals = literals;
+    this.attributeNames = attributeNames;
+
+    int literalLength = 0;
+    for (String literal : literals)
+      literalLength = literalLength + literal.length();
+    this.literalLength = literalLength;
+  }
+
+  public String render(StatementContext ctx) {
+    if (attributeNames.length == 0)
+      return literals[0];
+
+    int length = literalLength;
+    String[] values = new String[attributeNames.length];
+    for (int i = 0; i < attributeNames.length; i++) {
+      Object value = ctx.getAttributeBinding().getAttribute(attributeNames[i]);
+      if (value == null) {
+        throw new UnableToCreateStatementException(
+            "Undefined attribute for token '<" + attributeNames[i] + ">'", ctx);
+      }
+      values[i] = value.toString();
+      length = length + values[i].length();
+    }
+
+    StringBuilder buf = new StringBuilder(length);
+    buf.append(literals[0]);
+    for (int i = 0; i < values.length; i++) {
+      buf.append(values[i]);
+      buf.append(literals[i + 1]);
+    }
+
+    return buf.toString();
+  }
+}
@@ -30,58 +30,38 @@
  */
 package com.sigpwned.jdbq.template;
 
-import static com.sigpwned.jdbq.internal.lexer.DefineStatementLexer.COMMENT;
-import static com.sigpwned.jdbq.internal.lexer.DefineStatementLexer.DEFINE;
-import static com.sigpwned.jdbq.internal.lexer.DefineStatementLexer.DOUBLE_QUOTED_TEXT;
-import static com.sigpwned.jdbq.internal.lexer.DefineStatementLexer.ESCAPED_TEXT;
-import static com.sigpwned.jdbq.internal.lexer.DefineStatementLexer.LITERAL;
-import static com.sigpwned.jdbq.internal.lexer.DefineStatementLexer.QUOTED_TEXT;
-import static org.antlr.v4.runtime.Recognizer.EOF;
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.Token;
-import com.sigpwned.jdbq.internal.antlr4.ErrorListener;
-import com.sigpwned.jdbq.internal.lexer.DefineStatementLexer;
+import com.sigpwned.jdbq.internal.BoundedCache;
 import com.sigpwned.jdbq.statement.StatementContext;
-import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
 
 /**
  * Template engine which replaces angle-bracketed tokens like <code>&lt;name&gt;</code> with the
  * string value of the named attribute. Attribute names may contain letters (a-z, A-Z), digits
  * (0-9), or underscores (<code>_</code>).
+ * <p>
+ * Each distinct template is compiled once into literal runs and attribute slots, and cached by
+ * its text, so rendering a previously-seen template costs in proportion to its attributes rather
+ * than its length.
+ * </p>
  */
 public class DefinedAttributeTemplateEngine implements TemplateEngine {
+  public static final int DEFAULT_CACHE_SIZE = 1000;
+
+  private final BoundedCache<String, DefinedAttributeTemplate> templates;
+
+  public DefinedAttributeTemplateEngine() {
+    this(DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * @param cacheSize the maximum number of compiled templates to cache. If zero, every template is
+   *        compiled on every render.
+   */
+  public DefinedAttributeTemplateEngine(int cacheSize) {
+    this.templates = new BoundedCache<>(cacheSize);
+  }
+
   @Override
   public String render(String template, StatementContext ctx) {
-    StringBuilder buf = new StringBuilder();
-    DefineStatementLexer lexer = new DefineStatementLexer(CharStreams.fromString(template));
-    lexer.addErrorListener(new ErrorListener());
-    Token t = lexer.nextToken();
-    while (t.getType() != EOF) {
-      switch (t.getType()) {
-        case COMMENT:
-        case LITERAL:
-        case QUOTED_TEXT:
-        case DOUBLE_QUOTED_TEXT:
-          buf.append(t.getText());
-          break;
-        case DEFINE:
-          String text = t.getText();
-          String key = text.substring(1, text.length() - 1);
-          Object value = ctx.getAttributeBinding().getAttribute(key);
-          if (value == null) {
-            throw new UnableToCreateStatementException(
-                "Undefined attribute for token '" + text + "'", ctx);
-          }
-          buf.append(value);
-          break;
-        case ESCAPED_TEXT:
-          buf.append(t.getText().substring(1));
-          break;
-        default:
-          break;
-      }
-      t = lexer.nextToken();
-    }
-    return buf.toString();
+    return templates.computeIfAbsent(template, DefinedAttributeTemplate::compile).render(ctx);
   }
 }
@@ -0,0 +1,44 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.template;
+
+import com.sigpwned.jdbq.parser.ParsedSql;
+import com.sigpwned.jdbq.parser.SqlParser;
+import com.sigpwned.jdbq.statement.StatementContext;
+
+/**
+ * A {@link TemplateEngine} which also parses the parameters out of the SQL it renders, in the same
+ * pass. When the configured template engine implements this interface, statements call
+ * {@link #renderAndParse(String, StatementContext)} instead of rendering with the engine and then
+ * parsing the result with the configured {@link SqlParser}, so the configured parser and its
+ * parsed SQL cache are not used.
+ *
+ * @see DefinedAttributeParsingTemplateEngine
+ */
+public interface ParsingTemplateEngine extends TemplateEngine {
+  /**
+   * Renders an SQL statement from the given template and parses its parameters.
+   *
+   * @param template The SQL to rewrite
+   * @param ctx The statement context for the statement being executed
+   * @return the parsed SQL of the rendered statement
+   */
+  ParsedSql renderAndParse(String template, StatementContext ctx);
+}
@@ -0,0 +1,169 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.template;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import com.sigpwned.jdbq.internal.lexer.SqlScanner;
+
+/**
+ * An immutable render plan for {@link QueryFragmentTemplateEngine}. A template or fragment is
+ * scanned once into alternating literal runs and attribute slots. Named parameters are resolved to
+ * their final <code>@prefix_name</code> form and folded into the literal runs, and the prefixes of
+ * nested fragments are computed ahead of time, so rendering only looks up attribute values and
+ * concatenates.
+ */
+final class QueryFragmentTemplate {
+  /**
+   * Identifies a plan by the SQL it renders and the prefix of its parameters
+   */
+  static final class Key {
+    private final String sql;
+    private final String prefix;
+
+    public Key(String sql, String prefix) {
+      this.sql = sql;
+      this.prefix = prefix;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * sql.hashCode() + Objects.hashCode(prefix);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null || getClass() != obj.getClass())
+        return false;
+      Key other = (Key) obj;
+      return sql.equals(other.sql) && Objects.equals(prefix, other.prefix);
+    }
+  }
+
+  /**
+   * Compiles the given SQL. If the prefix is null, then the SQL is a top-level template, and its
+   * parameters and nested fragments are not prefixed.
+   */
+  public static QueryFragmentTemplate compile(Key key) {
+    final String sql = key.sql;
+    final String prefix = key.prefix;
+
+    List<String> literals = new ArrayList<>();
+    List<String> attributeNames = new ArrayList<>();
+    List<String> attributePrefixes = new ArrayList<>();
+    Map<String, String> parameterNames = new HashMap<>();
+
+    StringBuilder literal = new StringBuilder();
+    SqlScanner scanner = new SqlScanner(SqlScanner.Grammar.QUERY_FRAGMENT, sql);
+    while (scanner.next()) {
+      switch (scanner.getType()) {
+        case LITERAL:
+          literal.append(sql, scanner.getStart(), scanner.getEnd());
+          break;
+        case NAMED_PARAM: {
+          String name = scanner.getName();
+          String parameterName = prefix != null ? prefix + "_" + name : name;
+          parameterNames.put(name, parameterName);
+          literal.append("@").append(parameterName);
+        }
+          break;
+        case DEFINE: {
+          String name = scanner.getName();
+          literals.add(literal.toString());
+          literal.setLength(0);
+          attributeNames.add(name);
+          attributePrefixes.add(prefix != null ? prefix + "_" + name : name);
+        }
+          break;
+        case ESCAPED_TEXT:
+          literal.append(sql, scanner.getStart() + 1, scanner.getEnd());
+          break;
+        default:
+          break;
+      }
+    }
+    literals.add(literal.toString());
+
+    return new QueryFragmentTemplate(prefix, literals.toArray(new String[0]),
+        attributeNames.toArray(new String[0]), attributePrefixes.toArray(new String[0]),
+        parameterNames.isEmpty() ? Collections.emptyMap() : parameterNames);
+  }
+
+  private final String prefix;
+
+  /**
+   * The literal runs of the template. There is always exactly one more literal than attribute, and
+   * the template is literals[0], attributeNames[0], literals[1], ..., literals[n].
+   */
+  private final String[] literals;
+  private final String[] attributeNames;
+
+  /**
+   * The prefix of the parameters of the fragment, if any, bound to each attribute
+   */
+  private final String[] attributePrefixes;
+
+  /**
+   * The prefixed name of each parameter that appears in the SQL
+   */
+  private final Map<String, String> parameterNames;
+
+  private QueryFragmentTemplate(String prefix, String[] literals, String[] attributeNames,
+      String[] attributePrefixes, Map<String, String> parameterNames) {
+    this.prefix = prefix;
+    this.literals = literals;
+    this.attributeNames = attributeNames;
+    this.attributePrefixes = attributePrefixes;
+    this.parameterNames = parameterNames;
+  }
+
+  public int getAttributeCount() {
+    return attributeNames.length;
+  }
+
+  public String getLiteral(int index) {
+    return literals[index];
+  }
+
+  public String getAttributeName(int index) {
+    return attributeNames[index];
+  }
+
+  public String getAttributePrefix(int index) {
+    return attributePrefixes[index];
+  }
+
+  /**
+   * Returns the name under which to bind the fragment argument with the given name. Arguments that
+   * appear in the SQL are resolved ahead of time.
+   */
+  public String getParameterName(String name) {
+    String result = parameterNames.get(name);
+    if (result == null)
+      result = prefix != null ? prefix + "_" + name : name;
+    return result;
+  }
+}
@@ -30,24 +30,10 @@
  */
 package com.sigpwned.jdbq.template;
 
-import static com.sigpwned.jdbq.internal.lexer.QueryFragmentStatementLexer.COMMENT;
-import static com.sigpwned.jdbq.internal.lexer.QueryFragmentStatementLexer.DEFINE;
-import static com.sigpwned.jdbq.internal.lexer.QueryFragmentStatementLexer.DOUBLE_QUOTED_TEXT;
-import static com.sigpwned.jdbq.internal.lexer.QueryFragmentStatementLexer.ESCAPED_TEXT;
-import static com.sigpwned.jdbq.internal.lexer.QueryFragmentStatementLexer.LITERAL;
-import static com.sigpwned.jdbq.internal.lexer.QueryFragmentStatementLexer.NAMED_PARAM;
-import static com.sigpwned.jdbq.internal.lexer.QueryFragmentStatementLexer.QUOTED_TEXT;
-import static org.antlr.v4.runtime.Recognizer.EOF;
 import java.util.Map;
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.Token;
-import com.google.cloud.bigquery.QueryJobConfiguration.Builder;
-import com.sigpwned.jdbq.internal.antlr4.ErrorListener;
-import com.sigpwned.jdbq.internal.lexer.QueryFragmentStatementLexer;
+import com.sigpwned.jdbq.internal.BoundedCache;
 import com.sigpwned.jdbq.statement.Argument;
-import com.sigpwned.jdbq.statement.SqlStatements;
 import com.sigpwned.jdbq.statement.StatementContext;
-import com.sigpwned.jdbq.statement.StatementCustomizer;
 import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
 import com.sigpwned.jdbq.template.fragment.QueryFragment;
 
@@ -55,127 +41,106 @@ import com.sigpwned.jdbq.template.fragment.QueryFragment;
  * Template engine which replaces angle-bracketed tokens like <code>&lt;name&gt;</code> with the
  * string value of the named attribute. Attribute names may contain letters (a-z, A-Z), digits
  * (0-9), or underscores (<code>_</code>).
+ * <p>
+ * Attributes may also be {@link QueryFragment query fragments}, which are rendered in place. The
+ * arguments of each rendered fragment are bound to the statement as it is rendered, under names
+ * prefixed by the attribute path to the fragment, e.g., <code>outer_inner_name</code>.
+ * </p>
+ * <p>
+ * Each distinct template and fragment SQL is compiled once per prefix into a render plan with its
+ * parameter names already resolved, and cached, so rendering a previously-seen fragment tree only
+ * looks up attributes and binds fresh argument values.
+ * </p>
  */
 public class QueryFragmentTemplateEngine implements TemplateEngine {
+  public static final int DEFAULT_CACHE_SIZE = 1000;
+
+  private final BoundedCache<QueryFragmentTemplate.Key, QueryFragmentTemplate> templates;
+
+  public QueryFragmentTemplateEngine() {
+    this(DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * @param cacheSize the maximum number of compiled templates and fragments to cache. If zero,
+   *        every template and fragment is compiled on every render.
+   */
+  public QueryFragmentTemplateEngine(int cacheSize) {
+    this.templates = new BoundedCache<>(cacheSize);
+  }
+
   @Override
   public String render(String template, StatementContext ctx) {
-    StringBuilder buf = new StringBuilder();
-    QueryFragmentStatementLexer lexer =
-        new QueryFragmentStatementLexer(CharStreams.fromString(template));
-    lexer.addErrorListener(new ErrorListener());
-    Token t = lexer.nextToken();
-    while (t.getType() != EOF) {
-      switch (t.getType()) {
-        case COMMENT:
-        case LITERAL:
-        case QUOTED_TEXT:
-        case DOUBLE_QUOTED_TEXT:
-          buf.append(t.getText());
-          break;
-        case NAMED_PARAM: {
-          String text = t.getText();
-          @SuppressWarnings("unused")
-          String marker = text.substring(0, 1);
-          String key = text.substring(1, text.length());
-          buf.append("@").append(key);
-        }
-          break;
-        case DEFINE: {
-          String text = t.getText();
-          String key = text.substring(1, text.length() - 1);
-          Object value = ctx.getAttributeBinding().getAttribute(key);
-          if (value == null) {
-            throw new UnableToCreateStatementException(
-                "Undefined attribute for token '" + text + "'", ctx);
-          }
-          if (value instanceof QueryFragment) {
-            buf.append(renderQueryFragment(key, (QueryFragment) value));
-          } else {
-            buf.append(value);
-          }
-        }
-          break;
-        case ESCAPED_TEXT:
-          buf.append(t.getText().substring(1));
-          break;
-        default:
-          break;
-      }
-      t = lexer.nextToken();
-    }
+    QueryFragmentTemplate compiled = compile(template, null);
 
-    ctx.getConfig(SqlStatements.class).addCustomizer(new StatementCustomizer() {
-      @Override
-      public void beforeBinding(Builder stmt, StatementContext ctx) {
-        for (Map.Entry<String, Object> e : ctx.getAttributeBinding().getAttributes().entrySet()) {
-          if (e.getValue() instanceof QueryFragment) {
-            walk(ctx, e.getKey(), (QueryFragment) e.getValue());
-          }
-        }
+    StringBuilder buf = new StringBuilder(template.length());
+    buf.append(compiled.getLiteral(0));
+    for (int i = 0; i < compiled.getAttributeCount(); i++) {
+      String key = compiled.getAttributeName(i);
+      Object value = ctx.getAttributeBinding().getAttribute(key);
+      if (value == null) {
+        throw new UnableToCreateStatementException(
+            "Undefined attribute for token '<" + key + ">'", ctx);
       }
-
-      public void walk(StatementContext ctx, String prefix, QueryFragment fragment) {
-        // had to make named parameters in ArgumentBinding public
-        for (Map.Entry<String, Argument> e : fragment.getArguments().entrySet()) {
-          ctx.getArgumentBinding().addNamed(prefix + "_" + e.getKey(), e.getValue().getType(),
-              e.getValue().getValue());
-        }
-        for (Map.Entry<String, Object> e : fragment.getAttributes().entrySet()) {
-          if (e.getValue() instanceof QueryFragment) {
-            walk(ctx, prefix + "_" + e.getKey(), (QueryFragment) e.getValue());
-          }
-        }
+      if (value instanceof QueryFragment) {
+        renderQueryFragment(buf, compiled.getAttributePrefix(i), (QueryFragment) value, ctx);
+      } else {
+        buf.append(value);
       }
-    });
+      buf.append(compiled.getLiteral(i + 1));
+    }
 
     return buf.toString();
   }
 
-  protected String renderQueryFragment(String prefix, QueryFragment fragment) {
-    StringBuilder buf = new StringBuilder();
-    QueryFragmentStatementLexer lexer =
-        new QueryFragmentStatementLexer(CharStreams.fromString(fragment.getSql()));
-    lexer.addErrorListener(new ErrorListener());
-    Token t = lexer.nextToken();
-    while (t.getType() != EOF) {
-      switch (t.getType()) {
-        case COMMENT:
-        case LITERAL:
-        case QUOTED_TEXT:
-        case DOUBLE_QUOTED_TEXT:
-          buf.append(t.getText());
-          break;
-        case NAMED_PARAM: {
-          String text = t.getText();
-          @SuppressWarnings("unused")
-          String marker = text.substring(0, 1);
-          String key = text.substring(1, text.length());
-          buf.append("@").append(prefix).append("_").append(key);
-        }
-          break;
-        case DEFINE: {
-          String text = t.getText();
-          String key = text.substring(1, text.length() - 1);
-          Object value = fragment.getAttributes().get(key);
-          if (value == null) {
-            throw new UnableToCreateStatementException(
-                "Undefined attribute for token '" + key + "' in fragment");
-          }
-          if (value instanceof QueryFragment) {
-            buf.append(renderQueryFragment(prefix + "_" + key, (QueryFragment) value));
-          } else {
-            buf.append(value);
-          }
-        }
-          break;
-        case ESCAPED_TEXT:
-          buf.append(t.getText().substring(1));
-          break;
-        default:
-          break;
+  /**
+   * Appends the given fragment, rendered, to the given buffer, and binds the arguments of the
+   * fragment to the statement under names with the given prefix. Nested fragments are rendered
+   * recursively.
+   */
+  protected void renderQueryFragment(StringBuilder buf, String prefix, QueryFragment fragment,
+      StatementContext ctx) {
+    QueryFragmentTemplate compiled = compile(fragment.getSql(), prefix);
+
+    for (Map.Entry<String, Argument> e : fragment.getArguments().entrySet()) {
+      ctx.getArgumentBinding().addNamed(compiled.getParameterName(e.getKey()),
+          e.getValue().getType(), e.getValue().getValue());
+    }
+
+    Map<String, Object> attributes = fragment.getAttributes();
+    buf.append(compiled.getLiteral(0));
+    for (int i = 0; i < compiled.getAttributeCount(); i++) {
+      String key = compiled.getAttributeName(i);
+      Object value = attributes.get(key);
+      if (value == null) {
+        throw new UnableToCreateStatementException(
+            "Undefined attribute for token '" + key + "' in fragment");
+      }
+      if (value instanceof QueryFragment) {
+        renderQueryFragment(buf, compiled.getAttributePrefix(i), (QueryFragment) value, ctx);
+      } else {
+        buf.append(value);
       }
-      t = lexer.nextToken();
+      buf.append(compiled.getLiteral(i + 1));
     }
-    return buf.toString();
+  }
+
+  /**
+   * @return the number of compiled templates and fragments currently cached
+   */
+  public int getCacheSize() {
+    return templates.size();
+  }
+
+  /**
+   * @return the maximum number of compiled templates and fragments to cache
+   */
+  public int getMaximumCacheSize() {
+    return templates.getMaximumSize();
+  }
+
+  private QueryFragmentTemplate compile(String sql, String prefix) {
+    return templates.computeIfAbsent(new QueryFragmentTemplate.Key(sql, prefix),
+        QueryFragmentTemplate::compile);
   }
 }
@@ -158,6 +158,22 @@ public class QueryFragment {
     return bind(name, byte[].class, value);
   }
 
+  public QueryFragment bind(String name, long[] value) {
+    return bind(name, long[].class, value);
+  }
+
+  public QueryFragment bind(String name, int[] value) {
+    return bind(name, int[].class, value);
+  }
+
+  public QueryFragment bind(String name, double[] value) {
+    return bind(name, double[].class, value);
+  }
+
+  public QueryFragment bind(String name, boolean[] value) {
+    return bind(name, boolean[].class, value);
+  }
+
   public QueryFragment bind(String name, Class<?> type, Object value) {
     return bindByType(name, type, value);
   }
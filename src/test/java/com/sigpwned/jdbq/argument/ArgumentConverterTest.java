@@ -0,0 +1,63 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.argument;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+
+public class ArgumentConverterTest {
+  @Test
+  public void shouldRespectPriorityForBroadTypes() {
+    ArgumentFactory strings = (type, value, config) -> value instanceof String
+        ? Optional.of(QueryParameterValue.string("strings"))
+        : Optional.empty();
+    ArgumentFactory anything =
+        (type, value, config) -> Optional.of(QueryParameterValue.string("anything"));
+    ArgumentConverter converter = new ArgumentConverter(Object.class, asList(strings, anything));
+    ConfigRegistry config = new ConfigRegistry();
+
+    assertEquals("anything", converter.convert(1, config).getValue());
+    assertEquals("strings", converter.convert("a", config).getValue());
+    assertEquals("anything", converter.convert(2, config).getValue());
+  }
+
+  @Test
+  public void shouldTryLastFactoryFirstForFinalTypes() {
+    AtomicInteger declined = new AtomicInteger();
+    ArgumentFactory declining = (type, value, config) -> {
+      declined.incrementAndGet();
+      return Optional.empty();
+    };
+    ArgumentFactory accepting =
+        (type, value, config) -> Optional.of(QueryParameterValue.string((String) value));
+    ArgumentConverter converter =
+        new ArgumentConverter(String.class, asList(declining, accepting));
+    ConfigRegistry config = new ConfigRegistry();
+
+    assertEquals("a", converter.convert("a", config).getValue());
+    assertEquals("b", converter.convert("b", config).getValue());
+    assertEquals(1, declined.get());
+  }
+}
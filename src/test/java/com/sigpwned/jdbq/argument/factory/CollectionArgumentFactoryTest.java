@@ -0,0 +1,64 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.argument.factory;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.List;
+import org.junit.Test;
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.sigpwned.jdbq.argument.Arguments;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+import io.leangen.geantyref.TypeFactory;
+
+public class CollectionArgumentFactoryTest {
+  @Test
+  public void shouldMapCollection() {
+    ConfigRegistry config = new ConfigRegistry();
+    Type type = TypeFactory.parameterizedClass(List.class, Long.class);
+
+    QueryParameterValue value = config.get(Arguments.class).map(type, asList(1L, 2L), config);
+
+    assertEquals(2, value.getArrayValues().size());
+    assertEquals("2", value.getArrayValues().get(1).getValue());
+  }
+
+  @Test
+  public void shouldRejectNullElementsOfBulkTypes() {
+    ConfigRegistry config = new ConfigRegistry();
+    Type type = TypeFactory.parameterizedClass(List.class, String.class);
+
+    assertThrows(UnableToCreateStatementException.class,
+        () -> config.get(Arguments.class).map(type, asList("a", null), config));
+  }
+
+  @Test
+  public void shouldRejectNullElementsOfOtherTypes() {
+    ConfigRegistry config = new ConfigRegistry();
+    Type type = TypeFactory.parameterizedClass(List.class, Instant.class);
+
+    assertThrows(UnableToCreateStatementException.class,
+        () -> config.get(Arguments.class).map(type, asList(Instant.EPOCH, null), config));
+  }
+}
@@ -0,0 +1,77 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.argument.factory;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.sigpwned.jdbq.argument.Arguments;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+import io.leangen.geantyref.TypeFactory;
+
+public class StructArgumentFactoryTest {
+  private static final Type MAP_OF_STRING_TO_OBJECT =
+      TypeFactory.parameterizedClass(Map.class, String.class, Object.class);
+
+  @Test
+  public void shouldSortFieldsOfUnorderedMaps() {
+    Map<String, Object> row = new HashMap<>();
+    for (String name : asList("zulu", "alpha", "mike", "bravo"))
+      row.put(name, 1L);
+
+    assertEquals(asList("alpha", "bravo", "mike", "zulu"), fieldNames(row));
+  }
+
+  @Test
+  public void shouldKeepFieldOrderOfOrderedMaps() {
+    Map<String, Object> row = new LinkedHashMap<>();
+    for (String name : asList("zulu", "alpha", "mike", "bravo"))
+      row.put(name, 1L);
+
+    assertEquals(asList("zulu", "alpha", "mike", "bravo"), fieldNames(row));
+  }
+
+  @Test
+  public void shouldRejectEmptyArrayOfUntypedElements() {
+    ConfigRegistry config = new ConfigRegistry();
+    Type type = TypeFactory.parameterizedClass(List.class, Instant.class);
+
+    assertThrows(UnableToCreateStatementException.class,
+        () -> config.get(Arguments.class).map(type, Collections.emptyList(), config));
+  }
+
+  private static List<String> fieldNames(Map<String, Object> row) {
+    ConfigRegistry config = new ConfigRegistry();
+    QueryParameterValue value =
+        config.get(Arguments.class).map(MAP_OF_STRING_TO_OBJECT, row, config);
+    return new ArrayList<>(value.getStructValues().keySet());
+  }
+}
@@ -0,0 +1,172 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.generic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.junit.Test;
+import com.sigpwned.jdbq.argument.Arguments;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+import io.leangen.geantyref.GenericTypeReflector;
+
+/**
+ * Compares the memoized {@link GenericTypes} methods against the {@link GenericTypeReflector} calls
+ * they memoize, and times binding arguments whose converters resolve generic types. Each comparison
+ * checks that both give the same answer, and each bind checks that it produces a value.
+ *
+ * <p>
+ * The timed runs take several seconds, so they only happen when the {@value #BENCHMARK_PROPERTY}
+ * system property is true, e.g., {@code mvn test -Djdbq.benchmark=true}. They time a warmup and a
+ * measured run of each operation and print the results. The timings are informational only, since
+ * they depend on the machine, so no test fails because memoization is slow.
+ */
+public class GenericTypesBenchmarkTest {
+  public static final String BENCHMARK_PROPERTY = "jdbq.benchmark";
+
+  private static final boolean BENCHMARK = Boolean.getBoolean(BENCHMARK_PROPERTY);
+
+  private static final int WARMUP_ITERATIONS = 200000;
+
+  private static final int MEASURED_ITERATIONS = 1000000;
+
+  @SuppressWarnings("unused")
+  private static class Fixtures {
+    public ArrayList<String> list;
+    public Map<String, Integer> map;
+    public Collection<String> collection;
+    public List<Long> longs;
+    public Optional<Instant> instant;
+  }
+
+  private static volatile int sink;
+
+  private static final Type LIST_OF_STRING = fieldType("list");
+
+  private static final Type MAP_OF_STRING_TO_INTEGER = fieldType("map");
+
+  private static final Type COLLECTION_OF_STRING = fieldType("collection");
+
+  private static final Type LIST_OF_LONG = fieldType("longs");
+
+  private static final Type OPTIONAL_OF_INSTANT = fieldType("instant");
+
+  @Test
+  public void findGenericParameter() {
+    final TypeVariable<? extends Class<?>> value = Map.class.getTypeParameters()[1];
+
+    compare("findGenericParameter",
+        () -> GenericTypes.findGenericParameter(MAP_OF_STRING_TO_INTEGER, Map.class, 1),
+        () -> Optional.ofNullable(GenericTypeReflector.getTypeParameter(MAP_OF_STRING_TO_INTEGER,
+            value)));
+  }
+
+  @Test
+  public void resolveType() {
+    final Type element = List.class.getTypeParameters()[0];
+
+    compare("resolveType", () -> GenericTypes.resolveType(element, LIST_OF_STRING),
+        () -> GenericTypeReflector.resolveType(element, LIST_OF_STRING));
+  }
+
+  @Test
+  public void isSuperType() {
+    compare("isSuperType", () -> GenericTypes.isSuperType(COLLECTION_OF_STRING, LIST_OF_STRING),
+        () -> GenericTypeReflector.isSuperType(COLLECTION_OF_STRING, LIST_OF_STRING));
+  }
+
+  @Test
+  public void bindListOfLong() {
+    final ConfigRegistry config = new ConfigRegistry();
+    final Arguments arguments = config.get(Arguments.class);
+    final List<Long> value = Arrays.asList(1L, 2L, 3L);
+
+    measure("bind List<Long>", () -> arguments.map(LIST_OF_LONG, value, config));
+  }
+
+  @Test
+  public void bindOptionalOfInstant() {
+    final ConfigRegistry config = new ConfigRegistry();
+    final Arguments arguments = config.get(Arguments.class);
+    final Optional<Instant> value = Optional.of(Instant.ofEpochSecond(1600000000L));
+
+    measure("bind Optional<Instant>", () -> arguments.map(OPTIONAL_OF_INSTANT, value, config));
+  }
+
+  private static void compare(String name, Supplier<?> memoized, Supplier<?> direct) {
+    assertEquals(direct.get(), memoized.get());
+
+    if (!BENCHMARK)
+      return;
+
+    run(memoized, WARMUP_ITERATIONS);
+    run(direct, WARMUP_ITERATIONS);
+
+    long memoizedNanos = run(memoized, MEASURED_ITERATIONS);
+    long directNanos = run(direct, MEASURED_ITERATIONS);
+
+    System.out.printf("%s: memoized %.1f ns/op, direct %.1f ns/op%n", name,
+        (double) memoizedNanos / MEASURED_ITERATIONS, (double) directNanos / MEASURED_ITERATIONS);
+  }
+
+  private static void measure(String name, Supplier<?> operation) {
+    assertNotNull(operation.get());
+
+    if (!BENCHMARK)
+      return;
+
+    run(operation, WARMUP_ITERATIONS);
+
+    long nanos = run(operation, MEASURED_ITERATIONS);
+
+    System.out.printf("%s: %.1f ns/op%n", name, (double) nanos / MEASURED_ITERATIONS);
+  }
+
+  /**
+   * Calls the given supplier the given number of times, and returns the elapsed time. The results
+   * are combined and published so the calls cannot be optimized away.
+   */
+  private static long run(Supplier<?> supplier, int iterations) {
+    int hash = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++)
+      hash = hash * 31 + System.identityHashCode(supplier.get());
+    long elapsed = System.nanoTime() - start;
+    sink = hash;
+    return elapsed;
+  }
+
+  private static Type fieldType(String name) {
+    try {
+      return Fixtures.class.getField(name).getGenericType();
+    } catch (NoSuchFieldException e) {
+      throw new AssertionError(e);
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.internal.lexer;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Token;
+import org.junit.Test;
+import com.sigpwned.jdbq.internal.lexer.SqlScanner.Grammar;
+import com.sigpwned.jdbq.internal.lexer.SqlScanner.TokenType;
+
+/**
+ * Checks that {@link SqlScanner} tokenizes exactly like the ANTLR grammars it replaces. Each ANTLR
+ * token stream is normalized the way the scanner reports tokens, i.e., with each run of comments,
+ * quoted text, and other literal text merged into one {@link TokenType#LITERAL} token.
+ */
+public class SqlScannerTest {
+  private static final List<String> CASES = asList(
+      // Plain text
+      "", "SELECT 1", "SELECT * FROM t WHERE x = 1",
+
+      // Quotes and escapes
+      "SELECT 'abc' FROM t", "SELECT 'it\\'s' FROM t", "SELECT 'a\\' FROM t WHERE x = :x",
+      "'a\\'b\\'c' :x", "'unterminated :x", "'' :x", "''' :x", "SELECT \"col\" FROM t",
+      "\"\" :x", "\"unterminated :x", "\":x\" :y", "a\\:b", "a\\?b", "a\\<b>", "\\", "x\\",
+      "\\\\:x", "'a' 'b' :x 'c'",
+
+      // Comments
+      "/* :x */ :y", "/* ? */ ?", "/* <x> */ <y>", "-- :x\n:y", "-- :x\r\n:y", "// :x\n:y",
+      "/* unterminated :x", "/**/:x", "/*/ :x */ :y", "--", "//", "/", "-", "a - b / c",
+      "/* a */ /* b */ :x",
+
+      // Double colons and double question marks
+      "::", "a::b", "CAST(x AS INT64)::STRING", ":a::b", "::a", ":::a", "::::a", "??", "???",
+      "? ??", "a ?? b ? c", ":?", "?:a",
+
+      // Named parameters and dotted names
+      ":a", ":a.b.c", ":a?.b", ":a?b", ":a.", ":a..b", ":.a", ":?.a", ":1", ":$x_y", ":a:b",
+      "x = :x AND y = :y", ":", ": a", "a:", "?",
+
+      // Definitions
+      "<a>", "<a.b>", "<a?.b>", "< a>", "<a >", "<a", "<>", "<<a>>", "a < b > c", "<a><b>",
+      "SELECT <cols> FROM <table> WHERE x = :x",
+
+      // Surrogate pairs and other non-ASCII characters
+      ":na\u00EFve", ":\u00E9t\u00E9", "<\u00E9>", ":\uD83D\uDE00", ":a\uD83D\uDE00b",
+      "<\uD83D\uDE00>", ":a\uD800b", ":a\uDC00b", "<a\uD800>", "'\uD83D\uDE00' :x",
+
+      // Longest match
+      "/*:x*/:x/*:x*/", "'a''b' :x", "\"a\"\"b\" :x", "--:x", "-:x", "/:x", "\\:x", ":x\\",
+      ":x'a'", ":x\"a\"", ":x/*a*/", ":x--a", "<x>:y", ":y<x>", "?:y<x>?");
+
+  @Test
+  public void colonMatchesColonStatementLexer() {
+    Map<Integer, TokenType> types = new HashMap<>();
+    types.put(ColonStatementLexer.COMMENT, TokenType.LITERAL);
+    types.put(ColonStatementLexer.QUOTED_TEXT, TokenType.LITERAL);
+    types.put(ColonStatementLexer.DOUBLE_QUOTED_TEXT, TokenType.LITERAL);
+    types.put(ColonStatementLexer.LITERAL, TokenType.LITERAL);
+    types.put(ColonStatementLexer.ESCAPED_TEXT, TokenType.ESCAPED_TEXT);
+    types.put(ColonStatementLexer.NAMED_PARAM, TokenType.NAMED_PARAM);
+    types.put(ColonStatementLexer.POSITIONAL_PARAM, TokenType.POSITIONAL_PARAM);
+    for (String sql : CASES)
+      assertEquals(sql, lex(ColonStatementLexer::new, types, sql), scan(Grammar.COLON, sql));
+  }
+
+  @Test
+  public void defineMatchesDefineStatementLexer() {
+    Map<Integer, TokenType> types = new HashMap<>();
+    types.put(DefineStatementLexer.COMMENT, TokenType.LITERAL);
+    types.put(DefineStatementLexer.QUOTED_TEXT, TokenType.LITERAL);
+    types.put(DefineStatementLexer.DOUBLE_QUOTED_TEXT, TokenType.LITERAL);
+    types.put(DefineStatementLexer.LITERAL, TokenType.LITERAL);
+    types.put(DefineStatementLexer.ESCAPED_TEXT, TokenType.ESCAPED_TEXT);
+    types.put(DefineStatementLexer.DEFINE, TokenType.DEFINE);
+    for (String sql : CASES)
+      assertEquals(sql, lex(DefineStatementLexer::new, types, sql), scan(Grammar.DEFINE, sql));
+  }
+
+  @Test
+  public void queryFragmentMatchesQueryFragmentStatementLexer() {
+    Map<Integer, TokenType> types = new HashMap<>();
+    types.put(QueryFragmentStatementLexer.COMMENT, TokenType.LITERAL);
+    types.put(QueryFragmentStatementLexer.QUOTED_TEXT, TokenType.LITERAL);
+    types.put(QueryFragmentStatementLexer.DOUBLE_QUOTED_TEXT, TokenType.LITERAL);
+    types.put(QueryFragmentStatementLexer.LITERAL, TokenType.LITERAL);
+    types.put(QueryFragmentStatementLexer.ESCAPED_TEXT, TokenType.ESCAPED_TEXT);
+    types.put(QueryFragmentStatementLexer.DEFINE, TokenType.DEFINE);
+    types.put(QueryFragmentStatementLexer.NAMED_PARAM, TokenType.NAMED_PARAM);
+    for (String sql : CASES)
+      assertEquals(sql, lex(QueryFragmentStatementLexer::new, types, sql),
+          scan(Grammar.QUERY_FRAGMENT, sql));
+  }
+
+  @Test
+  public void namesShouldNotIncludeMarkers() {
+    SqlScanner scanner = new SqlScanner(Grammar.QUERY_FRAGMENT, "<a.b>:c.d");
+    scanner.next();
+    assertEquals(TokenType.DEFINE, scanner.getType());
+    assertEquals("a.b", scanner.getName());
+    scanner.next();
+    assertEquals(TokenType.NAMED_PARAM, scanner.getType());
+    assertEquals("c.d", scanner.getName());
+  }
+
+  /**
+   * Returns the tokens reported by the scanner, as type and text.
+   */
+  private static List<String> scan(Grammar grammar, String sql) {
+    List<String> result = new ArrayList<>();
+    SqlScanner scanner = new SqlScanner(grammar, sql);
+    while (scanner.next())
+      result.add(scanner.getType() + ":" + scanner.getText());
+    return result;
+  }
+
+  /**
+   * Returns the tokens reported by the given ANTLR lexer, as type and text, with adjacent literal
+   * tokens merged into one.
+   */
+  private static List<String> lex(Function<CharStream, Lexer> newLexer,
+      Map<Integer, TokenType> types, String sql) {
+    Lexer lexer = newLexer.apply(CharStreams.fromString(sql));
+    lexer.removeErrorListeners();
+
+    List<String> result = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+    for (Token token = lexer.nextToken(); token.getType() != Token.EOF; token =
+        lexer.nextToken()) {
+      TokenType type = types.get(token.getType());
+      if (type == null)
+        throw new AssertionError("Unexpected token type " + token.getType() + " in " + sql);
+      if (type == TokenType.LITERAL) {
+        literal.append(token.getText());
+        continue;
+      }
+      if (literal.length() != 0) {
+        result.add(TokenType.LITERAL + ":" + literal);
+        literal.setLength(0);
+      }
+      result.add(type + ":" + token.getText());
+    }
+    if (literal.length() != 0)
+      result.add(TokenType.LITERAL + ":" + literal);
+
+    return result;
+  }
+}
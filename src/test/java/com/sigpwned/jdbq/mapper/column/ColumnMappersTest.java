@@ -0,0 +1,77 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.mapper.column;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.lang.reflect.Proxy;
+import org.junit.Test;
+import com.google.cloud.bigquery.BigQuery;
+import com.sigpwned.jdbq.Handle;
+import com.sigpwned.jdbq.Jdbq;
+import com.sigpwned.jdbq.statement.Query;
+
+public class ColumnMappersTest {
+  @Test
+  public void statementsShouldShareResolvedMappers() {
+    Jdbq jdbq = new Jdbq(client());
+    ColumnMappers root = jdbq.getConfig().get(ColumnMappers.class);
+
+    try (Handle handle = jdbq.open()) {
+      Query first = handle.createQuery("SELECT 1");
+      Query second = handle.createQuery("SELECT 2");
+      ColumnMappers firstMappers = first.getContext().getConfig(ColumnMappers.class);
+      ColumnMappers secondMappers = second.getContext().getConfig(ColumnMappers.class);
+
+      assertTrue(firstMappers.findFor(String.class).isPresent());
+      assertEquals(0L, root.getCacheHitCount());
+      assertEquals(1L, root.getCacheMissCount());
+
+      assertSame(firstMappers.findFor(String.class).get(),
+          secondMappers.findFor(String.class).get());
+      assertEquals(2L, root.getCacheHitCount());
+      assertEquals(1L, root.getCacheMissCount());
+      assertSame(root.getGeneration(), secondMappers.getGeneration());
+    }
+  }
+
+  @Test
+  public void registeringOnCopyShouldNotAffectOriginal() {
+    Jdbq jdbq = new Jdbq(client());
+    ColumnMappers root = jdbq.getConfig().get(ColumnMappers.class);
+
+    try (Handle handle = jdbq.open()) {
+      ColumnMappers copy = handle.getConfig().get(ColumnMappers.class);
+      copy.register(String.class, (value, ctx) -> "custom");
+
+      assertEquals("custom", copy.findFor(String.class).get().map(null, null));
+      assertTrue(root.getGeneration() != copy.getGeneration());
+      assertEquals(0L, root.getCacheMissCount());
+    }
+  }
+
+  private static BigQuery client() {
+    return (BigQuery) Proxy.newProxyInstance(BigQuery.class.getClassLoader(),
+        new Class<?>[] {BigQuery.class}, (proxy, method, args) -> {
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+}
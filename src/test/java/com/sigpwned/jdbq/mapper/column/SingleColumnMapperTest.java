@@ -0,0 +1,143 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.mapper.column;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+import com.sigpwned.jdbq.mapper.row.RowMapper;
+import com.sigpwned.jdbq.result.FieldValueListsResultIterator;
+import com.sigpwned.jdbq.result.FieldValueListsResultSet;
+import com.sigpwned.jdbq.statement.StatementContext;
+
+public class SingleColumnMapperTest {
+  private static final Field A = Field.of("a", LegacySQLTypeName.STRING);
+
+  private static final Field B = Field.of("b", LegacySQLTypeName.STRING);
+
+  /**
+   * A column mapper that records whether each column was read by number or by label
+   */
+  private static class RecordingColumnMapper implements ColumnMapper<String> {
+    private final List<String> lookups = new ArrayList<>();
+
+    @Override
+    public String map(FieldValueList r, int columnNumber, StatementContext ctx) {
+      lookups.add("#" + columnNumber);
+      return ColumnMapper.super.map(r, columnNumber, ctx);
+    }
+
+    @Override
+    public String map(FieldValueList r, String columnLabel, StatementContext ctx) {
+      lookups.add(columnLabel);
+      return ColumnMapper.super.map(r, columnLabel, ctx);
+    }
+
+    @Override
+    public String map(FieldValue value, StatementContext ctx) {
+      return value.getStringValue();
+    }
+  }
+
+  @Test
+  public void labelShouldSpecializeToColumnNumber() {
+    RecordingColumnMapper columnMapper = new RecordingColumnMapper();
+    StatementContext ctx = new StatementContext(new ConfigRegistry());
+
+    RowMapper<String> mapper = new SingleColumnMapper<>(columnMapper, "b");
+    RowMapper<String> specialized = mapper.specialize(Schema.of(A, B), ctx);
+
+    assertNotSame(mapper, specialized);
+    assertEquals("two", specialized.map(row("one", "two"), ctx));
+    assertEquals("four", specialized.map(row("three", "four"), ctx));
+    assertEquals(asList("#1", "#1"), columnMapper.lookups);
+  }
+
+  @Test
+  public void columnNumberShouldNotSpecialize() {
+    StatementContext ctx = new StatementContext(new ConfigRegistry());
+
+    RowMapper<String> mapper = new SingleColumnMapper<>(new RecordingColumnMapper(), 1);
+
+    assertSame(mapper, mapper.specialize(Schema.of(A, B), ctx));
+  }
+
+  @Test
+  public void missingLabelShouldFallBackToLookupByLabel() {
+    RecordingColumnMapper columnMapper = new RecordingColumnMapper();
+    StatementContext ctx = new StatementContext(new ConfigRegistry());
+
+    // The result schema does not mention the label, but each row's own schema does.
+    RowMapper<String> mapper = new SingleColumnMapper<>(columnMapper, "b");
+    RowMapper<String> specialized = mapper.specialize(Schema.of(A), ctx);
+
+    assertSame(mapper, specialized);
+    assertEquals("two", specialized.map(row("one", "two"), ctx));
+    assertEquals(asList("b"), columnMapper.lookups);
+  }
+
+  @Test
+  public void resultsWithoutSchemaShouldNotSpecialize() {
+    RecordingColumnMapper columnMapper = new RecordingColumnMapper();
+    StatementContext ctx = new StatementContext(new ConfigRegistry());
+
+    RowMapper<String> delegate = new SingleColumnMapper<>(columnMapper, "b");
+    RowMapper<String> mapper = new RowMapper<String>() {
+      @Override
+      public String map(FieldValueList row, StatementContext ctx) {
+        return delegate.map(row, ctx);
+      }
+
+      @Override
+      public RowMapper<String> specialize(Schema schema, StatementContext ctx) {
+        throw new AssertionError("specialized without a schema");
+      }
+    };
+
+    FieldValueListsResultSet results =
+        new FieldValueListsResultSet(asList(row("one", "two"), row("three", "four")));
+    assertFalse(results.getSchema().isPresent());
+
+    FieldValueListsResultIterator<String> iterator =
+        new FieldValueListsResultIterator<>(results, mapper, ctx);
+    List<String> values = new ArrayList<>();
+    while (iterator.hasNext())
+      values.add(iterator.next());
+
+    assertEquals(asList("two", "four"), values);
+    assertEquals(asList("b", "b"), columnMapper.lookups);
+  }
+
+  private static FieldValueList row(String a, String b) {
+    return FieldValueList.of(asList(FieldValue.of(FieldValue.Attribute.PRIMITIVE, a),
+        FieldValue.of(FieldValue.Attribute.PRIMITIVE, b)), A, B);
+  }
+}
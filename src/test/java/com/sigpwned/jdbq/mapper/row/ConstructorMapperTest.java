@@ -0,0 +1,114 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.mapper.row;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import java.beans.ConstructorProperties;
+import java.util.List;
+import org.junit.Test;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import com.google.cloud.bigquery.Schema;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+import com.sigpwned.jdbq.mapper.MappingException;
+import com.sigpwned.jdbq.statement.StatementContext;
+
+public class ConstructorMapperTest {
+  public static class Item {
+    private final String name;
+    private final String unitPrice;
+
+    @ConstructorProperties({"name", "unitPrice"})
+    public Item(String name, String unitPrice) {
+      this.name = name;
+      this.unitPrice = unitPrice;
+    }
+  }
+
+  private static final Field NAME = Field.of("name", LegacySQLTypeName.STRING);
+
+  private static final Field UNIT_PRICE = Field.of("unit_price", LegacySQLTypeName.STRING);
+
+  @Test
+  public void specializedMapperShouldMapByColumnNumber() {
+    StatementContext ctx = new StatementContext(new ConfigRegistry());
+
+    RowMapper<Item> mapper =
+        ConstructorMapper.of(Item.class).specialize(Schema.of(UNIT_PRICE, NAME), ctx);
+    Item item = mapper.map(row(asList("1.25", "widget"), UNIT_PRICE, NAME), ctx);
+
+    assertEquals("widget", item.name);
+    assertEquals("1.25", item.unitPrice);
+  }
+
+  @Test
+  public void copiesOfOneRegistryShouldShareCompiledPlans() {
+    ConfigRegistry root = new ConfigRegistry();
+    RowMapper<Item> mapper = ConstructorMapper.of(Item.class);
+
+    Schema schema = Schema.of(UNIT_PRICE, NAME);
+    RowMapper<Item> first = mapper.specialize(schema, new StatementContext(root.createCopy()));
+    RowMapper<Item> second =
+        mapper.specialize(Schema.of(UNIT_PRICE, NAME), new StatementContext(root.createCopy()));
+
+    assertSame(first, second);
+  }
+
+  @Test
+  public void unspecializedMapperShouldMapByRowSchema() {
+    StatementContext ctx = new StatementContext(new ConfigRegistry());
+
+    Item item = ConstructorMapper.of(Item.class)
+        .map(row(asList("1.25", "widget"), UNIT_PRICE, NAME), ctx);
+
+    assertEquals("widget", item.name);
+    assertEquals("1.25", item.unitPrice);
+  }
+
+  @Test
+  public void unspecializedMapperShouldRequireEveryParameter() {
+    StatementContext ctx = new StatementContext(new ConfigRegistry());
+
+    RowMapper<Item> mapper = ConstructorMapper.of(Item.class);
+
+    assertThrows(MappingException.class, () -> mapper.map(row(asList("widget"), NAME), ctx));
+  }
+
+  @Test
+  public void unspecializedMapperShouldRejectRowWithoutSchema() {
+    StatementContext ctx = new StatementContext(new ConfigRegistry());
+
+    RowMapper<Item> mapper = ConstructorMapper.of(Item.class);
+
+    assertThrows(MappingException.class, () -> mapper.map(row(asList("1.25", "widget")), ctx));
+  }
+
+  private static FieldValueList row(List<String> values, Field... schema) {
+    FieldValue[] fieldValues = new FieldValue[values.size()];
+    for (int i = 0; i < fieldValues.length; i++)
+      fieldValues[i] = FieldValue.of(FieldValue.Attribute.PRIMITIVE, values.get(i));
+    return FieldValueList.of(asList(fieldValues), schema);
+  }
+}
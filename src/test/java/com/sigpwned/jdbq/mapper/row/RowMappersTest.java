@@ -0,0 +1,73 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.mapper.row;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.lang.reflect.Proxy;
+import org.junit.Test;
+import com.google.cloud.bigquery.BigQuery;
+import com.sigpwned.jdbq.Handle;
+import com.sigpwned.jdbq.Jdbq;
+import com.sigpwned.jdbq.statement.Query;
+
+public class RowMappersTest {
+  public static class Item {
+    private String name;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  @Test
+  public void statementsShouldShareResolvedMappers() {
+    Jdbq jdbq = new Jdbq(client());
+    RowMappers root = jdbq.getConfig().get(RowMappers.class);
+    root.register(BeanMapper.factory(Item.class));
+
+    try (Handle handle = jdbq.open()) {
+      Query first = handle.createQuery("SELECT 1");
+      Query second = handle.createQuery("SELECT 2");
+      RowMappers firstMappers = first.getContext().getConfig(RowMappers.class);
+      RowMappers secondMappers = second.getContext().getConfig(RowMappers.class);
+
+      assertTrue(firstMappers.findFor(Item.class).isPresent());
+      assertEquals(0L, root.getCacheHitCount());
+      assertEquals(1L, root.getCacheMissCount());
+
+      assertSame(firstMappers.findFor(Item.class).get(), secondMappers.findFor(Item.class).get());
+      assertEquals(2L, root.getCacheHitCount());
+      assertEquals(1L, root.getCacheMissCount());
+    }
+  }
+
+  private static BigQuery client() {
+    return (BigQuery) Proxy.newProxyInstance(BigQuery.class.getClassLoader(),
+        new Class<?>[] {BigQuery.class}, (proxy, method, args) -> {
+          throw new UnsupportedOperationException(method.getName());
+        });
+  }
+}
@@ -0,0 +1,87 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.result;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Test;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+import com.sigpwned.jdbq.statement.StatementContext;
+
+public class FieldValueListsResultIterableTest {
+  @Test
+  public void shouldProduceResultsOnlyOnce() {
+    AtomicInteger executions = new AtomicInteger();
+    ResultIterable<String> iterable =
+        iterable(executions, new StatementContext(new ConfigRegistry()));
+
+    assertEquals(0, executions.get());
+    assertEquals(asList("a", "b"), iterable.list());
+    assertEquals(1, executions.get());
+
+    assertThrows(IllegalStateException.class, iterable::list);
+    assertThrows(IllegalStateException.class, iterable::count);
+    assertThrows(IllegalStateException.class, iterable::first);
+    assertEquals(1, executions.get());
+  }
+
+  @Test
+  public void countShouldProduceResultsOnlyOnce() {
+    AtomicInteger executions = new AtomicInteger();
+    ResultIterable<String> iterable =
+        iterable(executions, new StatementContext(new ConfigRegistry()));
+
+    assertEquals(2L, iterable.count());
+    assertThrows(IllegalStateException.class, iterable::list);
+    assertEquals(1, executions.get());
+  }
+
+  @Test
+  public void hintShouldApplyOnlyWhileProducingResults() {
+    StatementContext ctx = new StatementContext(new ConfigRegistry());
+    OptionalLong[] hint = new OptionalLong[1];
+    Supplier<ResultSet> results = () -> {
+      hint[0] = ctx.getMaxRowsHint();
+      return new FieldValueListsResultSet(asList(row("a"), row("b")));
+    };
+
+    assertEquals("a", ResultIterable.of(results, (row, c) -> row.get(0).getStringValue(), ctx)
+        .first());
+    assertEquals(OptionalLong.of(1L), hint[0]);
+    assertEquals(OptionalLong.empty(), ctx.getMaxRowsHint());
+  }
+
+  private static ResultIterable<String> iterable(AtomicInteger executions, StatementContext ctx) {
+    return ResultIterable.of(() -> {
+      executions.incrementAndGet();
+      return new FieldValueListsResultSet(asList(row("a"), row("b")));
+    }, (row, c) -> row.get(0).getStringValue(), ctx);
+  }
+
+  private static FieldValueList row(String value) {
+    return FieldValueList.of(asList(FieldValue.of(FieldValue.Attribute.PRIMITIVE, value)));
+  }
+}
@@ -0,0 +1,118 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import org.junit.Test;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+
+public class BatchSqlTest {
+  @Test
+  public void shouldRewriteInsert() {
+    BatchSql batchSql = BatchSql.rewrite("INSERT INTO people (id, name) VALUES (:id, :name)");
+
+    assertEquals("INSERT INTO people (id, name) SELECT batch_row.batch_id, batch_row.batch_name\n"
+        + "FROM UNNEST(@batch) AS batch_row", batchSql.getSql());
+    assertEquals(asList("id", "name"), batchSql.getParameterNames());
+    assertEquals(asList("batch_id", "batch_name"), batchSql.getFieldNames());
+    assertEquals(emptyList(), batchSql.getConditionParameterNames());
+  }
+
+  @Test
+  public void shouldRewriteUpdateWithAlias() {
+    BatchSql batchSql =
+        BatchSql.rewrite("UPDATE people p SET p.name=:name WHERE p.id=:id AND p.org=:org");
+
+    assertEquals("MERGE people p USING UNNEST(@batch) AS batch_row\n"
+        + "ON p.id=batch_row.batch_id AND p.org=batch_row.batch_org\n"
+        + "WHEN MATCHED THEN UPDATE SET p.name=batch_row.batch_name", batchSql.getSql());
+    assertEquals(asList("name", "id", "org"), batchSql.getParameterNames());
+    assertEquals(asList("id", "org"), batchSql.getConditionParameterNames());
+  }
+
+  @Test
+  public void shouldRewriteDeleteWithFrom() {
+    BatchSql batchSql = BatchSql.rewrite("DELETE FROM people WHERE id=:id");
+
+    assertEquals("MERGE people USING UNNEST(@batch) AS batch_row\n"
+        + "ON id=batch_row.batch_id\n"
+        + "WHEN MATCHED THEN DELETE", batchSql.getSql());
+    assertEquals(asList("id"), batchSql.getConditionParameterNames());
+  }
+
+  @Test
+  public void shouldRewriteDeleteWithoutFrom() {
+    BatchSql batchSql = BatchSql.rewrite("DELETE people WHERE id=:id");
+
+    assertEquals("MERGE people USING UNNEST(@batch) AS batch_row\n"
+        + "ON id=batch_row.batch_id\n"
+        + "WHEN MATCHED THEN DELETE", batchSql.getSql());
+  }
+
+  @Test
+  public void shouldIgnoreKeywordsAndSemicolonsInComments() {
+    BatchSql batchSql = BatchSql.rewrite(
+        "DELETE FROM people -- WHERE; not here\nWHERE id=:id /* VALUES; */ // trailing;\n");
+
+    assertEquals("MERGE people USING UNNEST(@batch) AS batch_row\n"
+        + "ON id=batch_row.batch_id\n"
+        + "WHEN MATCHED THEN DELETE", batchSql.getSql());
+  }
+
+  @Test
+  public void shouldNotTreatHashAsComment() {
+    // SqlScanner does not treat # as a comment, so neither does the rewrite: the parameter after it
+    // is a parameter, and the semicolon after it separates statements.
+    assertEquals(asList("id", "note"),
+        BatchSql.rewrite("DELETE FROM people WHERE id=:id # :note\n").getParameterNames());
+    assertThrows(UnableToCreateStatementException.class,
+        () -> BatchSql.rewrite("DELETE FROM people WHERE id=:id # one; two\n"));
+  }
+
+  @Test
+  public void shouldIgnoreSemicolonsInQuotes() {
+    BatchSql batchSql = BatchSql.rewrite("UPDATE people SET note=';' WHERE id=:id;");
+
+    assertEquals("MERGE people USING UNNEST(@batch) AS batch_row\n"
+        + "ON id=batch_row.batch_id\n"
+        + "WHEN MATCHED THEN UPDATE SET note=';'", batchSql.getSql());
+  }
+
+  @Test
+  public void shouldRejectMultipleStatements() {
+    assertThrows(UnableToCreateStatementException.class,
+        () -> BatchSql.rewrite("DELETE FROM a WHERE id=:id; DELETE FROM b WHERE id=:id"));
+  }
+
+  @Test
+  public void shouldRejectPositionalParameters() {
+    assertThrows(UnableToCreateStatementException.class,
+        () -> BatchSql.rewrite("DELETE FROM people WHERE id=?"));
+  }
+
+  @Test
+  public void shouldRejectOtherStatements() {
+    assertThrows(UnableToCreateStatementException.class,
+        () -> BatchSql.rewrite("SELECT * FROM people WHERE id=:id"));
+  }
+}
@@ -0,0 +1,112 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+
+public class BatchTest {
+  @Test
+  public void shouldPrefixPositionalParameters() {
+    QueryParameterValue name = QueryParameterValue.string("alpha");
+    QueryParameterValue id = QueryParameterValue.int64(1L);
+    StringBuilder script = new StringBuilder();
+    ArgumentBinding binding = new ArgumentBinding();
+
+    Batch.appendScriptStatement(script, "s0_", "UPDATE t SET name=? WHERE id=?",
+        Arrays.asList(name, id), emptyMap(), binding);
+
+    assertEquals("UPDATE t SET name=@s0_0 WHERE id=@s0_1;\n", script.toString());
+    assertEquals(new HashSet<>(Arrays.asList("s0_0", "s0_1")), binding.getNamed().keySet());
+    assertSame(name, binding.getNamed().get("s0_0").getValue());
+    assertSame(id, binding.getNamed().get("s0_1").getValue());
+  }
+
+  @Test
+  public void shouldPrefixNamedParametersButNotSystemVariables() {
+    QueryParameterValue id = QueryParameterValue.int64(1L);
+    StringBuilder script = new StringBuilder();
+    ArgumentBinding binding = new ArgumentBinding();
+
+    Batch.appendScriptStatement(script, "s1_",
+        "DELETE FROM t WHERE id=@id AND job=@@script.job_id AND x=@unbound", emptyList(),
+        singletonMap("id", id), binding);
+
+    assertEquals("DELETE FROM t WHERE id=@s1_id AND job=@@script.job_id AND x=@unbound;\n",
+        script.toString());
+    assertEquals(singletonMap("s1_id", id).keySet(), binding.getNamed().keySet());
+    assertSame(id, binding.getNamed().get("s1_id").getValue());
+  }
+
+  @Test
+  public void shouldIgnoreParametersInQuotesAndComments() {
+    QueryParameterValue value = QueryParameterValue.string("alpha");
+    StringBuilder script = new StringBuilder();
+    ArgumentBinding binding = new ArgumentBinding();
+
+    Batch.appendScriptStatement(script, "s0_",
+        "INSERT INTO t (a, b) /* ? @b */ VALUES ('?;@b', ?) -- trailing ?", Arrays.asList(value),
+        singletonMap("b", value), binding);
+
+    assertEquals("INSERT INTO t (a, b) /* ? @b */ VALUES ('?;@b', @s0_0);\n", script.toString());
+    assertEquals(singletonMap("s0_0", value).keySet(), binding.getNamed().keySet());
+  }
+
+  @Test
+  public void shouldAppendStatementsInOrder() {
+    StringBuilder script = new StringBuilder();
+    ArgumentBinding binding = new ArgumentBinding();
+    List<QueryParameterValue> values =
+        Arrays.asList(QueryParameterValue.int64(1L), QueryParameterValue.int64(2L));
+
+    Batch.appendScriptStatement(script, "s0_", "DELETE FROM a WHERE id=?;  \n",
+        values.subList(0, 1), emptyMap(), binding);
+    Batch.appendScriptStatement(script, "s1_", "DELETE FROM b WHERE id=?", values.subList(1, 2),
+        emptyMap(), binding);
+
+    assertEquals("DELETE FROM a WHERE id=@s0_0;\nDELETE FROM b WHERE id=@s1_0;\n",
+        script.toString());
+    assertEquals(new HashSet<>(Arrays.asList("s0_0", "s1_0")), binding.getNamed().keySet());
+  }
+
+  @Test
+  public void shouldRejectMultipleStatements() {
+    assertThrows(UnableToCreateStatementException.class,
+        () -> Batch.appendScriptStatement(new StringBuilder(), "s0_",
+            "DELETE FROM a; DELETE FROM b", emptyList(), emptyMap(), new ArgumentBinding()));
+  }
+
+  @Test
+  public void shouldRejectMissingPositionalParameter() {
+    assertThrows(UnableToCreateStatementException.class,
+        () -> Batch.appendScriptStatement(new StringBuilder(), "s0_", "DELETE FROM a WHERE id=?",
+            emptyList(), emptyMap(), new ArgumentBinding()));
+  }
+}
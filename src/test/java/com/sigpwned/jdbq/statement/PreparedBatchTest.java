@@ -0,0 +1,90 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.statement;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import com.sigpwned.jdbq.statement.exception.UnableToCreateStatementException;
+
+public class PreparedBatchTest {
+  @Test
+  public void shouldDropRepeatedRows() {
+    List<Map<String, Argument>> rows =
+        asList(row(1L, "alpha"), row(2L, "bravo"), row(1L, "alpha"));
+
+    List<Map<String, Argument>> result =
+        PreparedBatch.distinctRows(rows, asList("name", "id"), asList("id"));
+
+    assertEquals(2, result.size());
+    assertSame(rows.get(0), result.get(0));
+    assertSame(rows.get(1), result.get(1));
+  }
+
+  @Test
+  public void shouldRejectConflictingRows() {
+    List<Map<String, Argument>> rows = asList(row(1L, "alpha"), row(1L, "bravo"));
+
+    assertThrows(UnableToCreateStatementException.class,
+        () -> PreparedBatch.distinctRows(rows, asList("name", "id"), asList("id")));
+  }
+
+  @Test
+  public void shouldKeepRowsWithNullConditions() {
+    List<Map<String, Argument>> rows = asList(row(null, "alpha"), row(null, "bravo"));
+
+    assertEquals(rows, PreparedBatch.distinctRows(rows, asList("name", "id"), asList("id")));
+  }
+
+  @Test
+  public void shouldKeepAllRowsWithoutConditions() {
+    List<Map<String, Argument>> rows = asList(row(1L, "alpha"), row(1L, "alpha"));
+
+    assertSame(rows, PreparedBatch.distinctRows(rows, asList("id", "name"), emptyList()));
+  }
+
+  private static Map<String, Argument> row(Long id, String name) {
+    Map<String, Argument> result = new HashMap<>();
+    result.put("id", argument(Long.class, id));
+    result.put("name", argument(String.class, name));
+    return result;
+  }
+
+  private static Argument argument(Type type, Object value) {
+    return new Argument() {
+      @Override
+      public Type getType() {
+        return type;
+      }
+
+      @Override
+      public Object getValue() {
+        return value;
+      }
+    };
+  }
+}
@@ -0,0 +1,124 @@
+/*-
+ * =================================LICENSE_START==================================
+ * jdbq
+ * ====================================SECTION=====================================
+ * Copyright (C) 2022 - 2023 Andy Boothe
+ * ====================================SECTION=====================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ==================================LICENSE_END===================================
+ */
+package com.sigpwned.jdbq.template;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.Collection;
+import java.util.Map;
+import org.junit.Test;
+import com.sigpwned.jdbq.config.ConfigRegistry;
+import com.sigpwned.jdbq.statement.Argument;
+import com.sigpwned.jdbq.statement.SqlStatements;
+import com.sigpwned.jdbq.statement.StatementContext;
+import com.sigpwned.jdbq.statement.StatementCustomizer;
+import com.sigpwned.jdbq.template.fragment.QueryFragment;
+
+public class QueryFragmentTemplateEngineTest {
+  @Test
+  public void shouldRenderAndBindNestedFragments() {
+    QueryFragmentTemplateEngine engine = new QueryFragmentTemplateEngine();
+
+    StatementContext ctx = new StatementContext(new ConfigRegistry());
+    ctx.getAttributeBinding().define("where",
+        new QueryFragment("<inner> AND a = :a").bind("a", 1)
+            .define("inner", new QueryFragment("b = :b").bind("b", "two")));
+
+    String sql = engine.render("SELECT * FROM t WHERE <where>", ctx);
+
+    assertEquals("SELECT * FROM t WHERE b = @where_inner_b AND a = @where_a", sql);
+    Map<String, Argument> named = ctx.getArgumentBinding().getNamed();
+    assertEquals(2, named.size());
+    assertEquals(1, named.get("where_a").getValue());
+    assertEquals("two", named.get("where_inner_b").getValue());
+  }
+
+  /**
+   * Renders the same template against the same context many times, as a statement that is rendered
+   * again would, and checks that rendering neither registers anything on the statement's config nor
+   * accumulates arguments: the customizers stay the same list, and the same arguments are bound
+   * every time.
+   */
+  @Test
+  public void shouldRenderRepeatedlyAgainstOneContextWithoutSideEffects() {
+    final int renders = 100000;
+
+    QueryFragmentTemplateEngine engine = new QueryFragmentTemplateEngine();
+
+    StatementContext ctx = new StatementContext(new ConfigRegistry());
+    ctx.getAttributeBinding().define("where",
+        new QueryFragment("<inner> AND a = :a").bind("a", 1)
+            .define("inner", new QueryFragment("b = :b").bind("b", "two")));
+    final Collection<StatementCustomizer> customizers =
+        ctx.getConfig(SqlStatements.class).getCustomizers();
+
+    for (int i = 0; i < renders; i++) {
+      String sql = engine.render("SELECT * FROM t WHERE <where>", ctx);
+
+      assertEquals("SELECT * FROM t WHERE b = @where_inner_b AND a = @where_a", sql);
+      assertSame(customizers, ctx.getConfig(SqlStatements.class).getCustomizers());
+      Map<String, Argument> named = ctx.getArgumentBinding().getNamed();
+      assertEquals(2, named.size());
+      assertEquals(1, named.get("where_a").getValue());
+      assertEquals("two", named.get("where_inner_b").getValue());
+    }
+
+    assertTrue(engine.getCacheSize() <= engine.getMaximumCacheSize());
+  }
+
+  /**
+   * Renders many distinct and repeated templates and fragments through one engine with a small
+   * cache, as a long-running application would, and checks that every render binds the right
+   * values under the right names, whether its plans were cached, evicted, or never seen before,
+   * and that the cache never grows past its maximum size.
+   */
+  @Test
+  public void shouldRenderCorrectlyWithBoundedCacheUnderChurn() {
+    final int cacheSize = 64;
+    final int renders = 20000;
+
+    QueryFragmentTemplateEngine engine = new QueryFragmentTemplateEngine(cacheSize);
+    assertEquals(cacheSize, engine.getMaximumCacheSize());
+
+    for (int i = 0; i < renders; i++) {
+      // Half of the renders use one of a few repeated shapes, which should stay hot in the cache,
+      // and the other half use a shape never seen before, which churns the cache.
+      final int shape = i % 2 == 0 ? i % 7 : i;
+
+      StatementContext ctx = new StatementContext(new ConfigRegistry());
+      ctx.getAttributeBinding().define("table", "t" + shape);
+      ctx.getAttributeBinding().define("where",
+          new QueryFragment("x" + shape + " = :x AND <inner>").bind("x", (long) i)
+              .define("inner", new QueryFragment("y" + shape + " = :y").bind("y", "v" + i)));
+
+      String sql = engine.render("SELECT * FROM <table> WHERE <where>", ctx);
+
+      assertEquals("SELECT * FROM t" + shape + " WHERE x" + shape + " = @where_x AND y" + shape
+          + " = @where_inner_y", sql);
+      Map<String, Argument> named = ctx.getArgumentBinding().getNamed();
+      assertEquals(2, named.size());
+      assertEquals((long) i, named.get("where_x").getValue());
+      assertEquals("v" + i, named.get("where_inner_y").getValue());
+
+      assertTrue(engine.getCacheSize() <= cacheSize);
+    }
+  }
+}